@@ -1,7 +1,21 @@
 package com.stackroute.user;
 
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import com.stackroute.user.jwt.JwtTokenCodec;
+import com.stackroute.user.jwt.RefreshTokenCodec;
+import com.stackroute.user.jwt.TokenRevocationList;
+import com.stackroute.user.security.PasswordHasher;
+import com.stackroute.user.trace.InMemorySpanExporter;
+import com.stackroute.user.trace.LogSpanExporter;
+import com.stackroute.user.trace.SpanExporter;
+import com.stackroute.user.trace.TracingAspect;
 
 /*
  * The @SpringBootApplication annotation is equivalent to using @Configuration, @EnableAutoConfiguration 
@@ -11,6 +25,64 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @SpringBootApplication
 public class AuthenticationServiceApplication {
 
+	/*
+	 * Define the bean issuing the JWT tokens, its signing key is derived once at startup.
+	 */
+
+	@Bean
+	public JwtTokenCodec jwtTokenCodec(@Value("${jwt.secret:secretkey}") String secret) {
+		return new JwtTokenCodec(secret);
+	}
+
+	/*
+	 * Define the beans issuing and verifying the refresh tokens. The ids of the revoked
+	 * refresh tokens are kept in memory and written to the revocation file periodically.
+	 */
+
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	public TokenRevocationList tokenRevocationList(@Value("${jwt.refresh.revocation-file:data/revoked-refresh-tokens}") String file,
+			@Value("${jwt.refresh.persist-interval:10000}") long persistIntervalMillis) {
+		return new TokenRevocationList(Paths.get(file), persistIntervalMillis);
+	}
+
+	@Bean
+	public RefreshTokenCodec refreshTokenCodec(@Value("${jwt.refresh.secret:refreshsecretkey}") String secret,
+			@Value("${jwt.refresh.expiration:604800000}") long expirationMillis, TokenRevocationList tokenRevocationList) {
+		return new RefreshTokenCodec(new JwtTokenCodec(secret), tokenRevocationList, expirationMillis);
+	}
+
+	/*
+	 * Define the bean hashing and verifying the passwords with bcrypt on its own bounded
+	 * executor, the strength is picked with the PasswordHashBenchmark.
+	 */
+
+	@Bean(destroyMethod = "shutdown")
+	public PasswordHasher passwordHasher(@Value("${auth.password.strength:10}") int strength,
+			@Value("${auth.password.threads:4}") int threads,
+			@Value("${auth.password.queue-size:64}") int queueSize,
+			@Value("${auth.password.timeout:5000}") long timeoutMillis) {
+		return new PasswordHasher(strength, threads, queueSize, timeoutMillis);
+	}
+
+	/*
+	 * Define the beans tracing the service and repository calls, only when tracing.enabled
+	 * is true. The traces are written to the trace log file, or kept in memory when
+	 * tracing.exporter is memory.
+	 */
+
+	@Bean
+	@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+	public SpanExporter spanExporter(@Value("${tracing.exporter:file}") String exporter,
+			@Value("${tracing.memory.capacity:1000}") int capacity) {
+		return "memory".equals(exporter) ? new InMemorySpanExporter(capacity) : new LogSpanExporter();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+	public TracingAspect tracingAspect(SpanExporter spanExporter) {
+		return new TracingAspect(spanExporter);
+	}
+
 	/*
 	 * You need to run SpringApplication.run, because this method start whole spring
 	 * framework. Code below integrates your main() with SpringBoot
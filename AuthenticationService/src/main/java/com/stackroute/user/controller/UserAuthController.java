@@ -1,8 +1,6 @@
 package com.stackroute.user.controller;
 
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.servlet.ServletException;
 
@@ -16,13 +14,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.stackroute.user.jwt.JwtTokenCodec;
+import com.stackroute.user.jwt.RefreshTokenCodec;
+import com.stackroute.user.model.LoginResponse;
+import com.stackroute.user.model.RefreshRequest;
 import com.stackroute.user.model.User;
 import com.stackroute.user.service.UserAuthService;
 import com.stackroute.user.util.exception.UserAlreadyExistsException;
-import com.stackroute.user.util.exception.UserNotFoundException;
 
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.JwtException;
+
 
 /*
  * As in this assignment, we are working on creating RESTful web service, hence annotate
@@ -42,13 +43,21 @@ public class UserAuthController {
 	 * keyword
 	 */
 	static final long EXPIRATIONTIME = 300000;
-	private Map<String, String> map = new HashMap<>();
 	@Autowired
 	private UserAuthService userAuthService;
+	private JwtTokenCodec jwtTokenCodec = new JwtTokenCodec();
+	private RefreshTokenCodec refreshTokenCodec;
 	
-    public UserAuthController(UserAuthService userAuthService) {
+    public UserAuthController(UserAuthService userAuthService, RefreshTokenCodec refreshTokenCodec) {
     	this.userAuthService = userAuthService;
+    	this.refreshTokenCodec = refreshTokenCodec;
 	}
+
+    /* Replaces the default token codec by the one configured with the application secret. */
+    @Autowired
+    public void setJwtTokenCodec(JwtTokenCodec jwtTokenCodec) {
+    	this.jwtTokenCodec = jwtTokenCodec;
+    }
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     /*
@@ -63,20 +72,18 @@ public class UserAuthController {
 	 * This handler method should map to the URL "/api/v1/auth/register" using HTTP POST method
 	 */
     @PostMapping("/register")
-	public ResponseEntity<User> registerUser(@RequestBody User user) throws UserNotFoundException{
+	public ResponseEntity<User> registerUser(@RequestBody User user) {
     	try {
-    		User userById = userAuthService.findByUserIdAndPassword(user.getUserId(), user.getPassword());
-    		if(userById == null) {
-    			userAuthService.saveUser(user);
-    			logger.info("In controller - {}", "User is registered successfully.");
-    			return new ResponseEntity<User>(user, HttpStatus.CREATED);
-    		}
+    		userAuthService.saveUser(user);
+    		logger.info("In controller - User ID {} is registered successfully.", user.getUserId());
+    		return new ResponseEntity<User>(user, HttpStatus.CREATED);
     	}catch(UserAlreadyExistsException e) {
-    		logger.info("In controller - {}", "User already exists.");
+    		logger.info("In controller - User ID {} already exists.", user.getUserId());
     		return new ResponseEntity<User>(HttpStatus.CONFLICT);
-    	} 
-    	logger.info("In controller - {}", "User already exists.");
-    	return new ResponseEntity<User>(HttpStatus.CONFLICT);
+    	}catch(RejectedExecutionException e) {
+    		logger.warn("In controller - Password hashing is saturated, User ID {} is not registered.", user.getUserId());
+    		return new ResponseEntity<User>(HttpStatus.SERVICE_UNAVAILABLE);
+    	}
 	}
 
 	/* 
@@ -84,35 +91,78 @@ public class UserAuthController {
 	 * object from request body containing the username and password. The username and password should be validated 
 	 * before proceeding ahead with JWT token generation. The user credentials will be validated against the database entries. 
 	 * The error should be return if validation is not successful. If credentials are validated successfully, then JWT
-	 * token will be generated. The token should be returned back to the caller along with the API response.
+	 * token will be generated. The token should be returned back to the caller along with the API response,
+	 * together with a refresh token for the refresh handler.
 	 * This handler method should return any one of the status messages basis on different
 	 * situations:
 	 * 1. 200(OK) - If login is successful
 	 * 2. 401(UNAUTHORIZED) - If login is not successful
+	 * 3. 503(SERVICE_UNAVAILABLE) - If the password hashing executor is saturated
 	 * 
 	 * This handler method should map to the URL "/api/v1/auth/login" using HTTP POST method
 	*/
     @PostMapping("/login")
-	public ResponseEntity<?> login(@RequestBody User user) throws ServletException{
-    	String jwtToken = "";
+	public ResponseEntity<LoginResponse> login(@RequestBody User user) throws ServletException{
     	try {
-    		jwtToken = getToken(user.getUserId(), user.getPassword());
-    		map.clear();
-    		map.put("message", "user successfully logged in");
-    		map.put("token", jwtToken);
+    		String jwtToken = getToken(user.getUserId(), user.getPassword());
+    		logger.info("In controller - Authorized User ID {}.", user.getUserId());
+    		return new ResponseEntity<>(new LoginResponse("user successfully logged in", jwtToken,
+    				refreshTokenCodec.issue(user.getUserId())), HttpStatus.OK);
+    	}
+    	catch(RejectedExecutionException e) {
+    		logger.warn("In controller - Password hashing is saturated, User ID {} is not logged in.", user.getUserId());
+    		return new ResponseEntity<>(new LoginResponse(e.getMessage(), null), HttpStatus.SERVICE_UNAVAILABLE);
     	}
     	catch(Exception e) {
-    		String exceptionMsg = e.getMessage();
-    		map.clear();
-    		map.put("token", null);
-    		map.put("message", exceptionMsg);
-    		logger.info("In controller - {}", "Unauthorized User.");
-    		return new ResponseEntity<>(map, HttpStatus.UNAUTHORIZED);
+    		logger.info("In controller - Unauthorized User ID {}.", user.getUserId());
+    		return new ResponseEntity<>(new LoginResponse(e.getMessage(), null), HttpStatus.UNAUTHORIZED);
     	}
-    	logger.info("In controller - {}", "Authorized User.");
-    	return new ResponseEntity<>(map, HttpStatus.OK);
 	}
     
+	/*
+	 * Mints a new access token from the refresh token issued at login, without looking the
+	 * user up in the database. This handler method should return any one of the status
+	 * messages basis on different situations:
+	 * 1. 200(OK) - If the refresh token is valid
+	 * 2. 401(UNAUTHORIZED) - If the refresh token is invalid, expired or revoked
+	 * 
+	 * This handler method should map to the URL "/api/v1/auth/refresh" using HTTP POST method
+	 */
+    @PostMapping("/refresh")
+	public ResponseEntity<LoginResponse> refresh(@RequestBody RefreshRequest refreshRequest) {
+    	try {
+    		String userId = refreshTokenCodec.verify(refreshRequest.getRefreshToken());
+    		String jwtToken = jwtTokenCodec.sign(userId, EXPIRATIONTIME);
+    		logger.info("In controller - JWT Token refreshed for User ID {}.", userId);
+    		return new ResponseEntity<>(new LoginResponse("token successfully refreshed", jwtToken,
+    				refreshRequest.getRefreshToken()), HttpStatus.OK);
+    	}
+    	catch(JwtException | IllegalArgumentException e) {
+    		logger.info("In controller - Refresh token rejected.");
+    		return new ResponseEntity<>(new LoginResponse(e.getMessage(), null), HttpStatus.UNAUTHORIZED);
+    	}
+	}
+
+	/*
+	 * Revokes the refresh token issued at login, the access tokens already minted expire
+	 * on their own. This handler method should return any one of the status messages basis
+	 * on different situations:
+	 * 1. 200(OK) - If the refresh token is revoked
+	 * 2. 401(UNAUTHORIZED) - If the refresh token is invalid or expired
+	 * 
+	 * This handler method should map to the URL "/api/v1/auth/logout" using HTTP POST method
+	 */
+    @PostMapping("/logout")
+	public ResponseEntity<LoginResponse> logout(@RequestBody RefreshRequest refreshRequest) {
+    	try {
+    		refreshTokenCodec.revoke(refreshRequest.getRefreshToken());
+    		return new ResponseEntity<>(new LoginResponse("user successfully logged out", null), HttpStatus.OK);
+    	}
+    	catch(JwtException | IllegalArgumentException e) {
+    		return new ResponseEntity<>(new LoginResponse(e.getMessage(), null), HttpStatus.UNAUTHORIZED);
+    	}
+	}
+
     public String getToken(String userName, String password) throws Exception{
     	if(userName == null || password == null) {
     		throw new ServletException("Please fill in username and password.");
@@ -124,13 +174,9 @@ public class UserAuthController {
     		throw new ServletException("Invalid Credentials.");
     	}
     	
-    	String jwtToken = Jwts.builder().setSubject(userName)
-    			.setIssuedAt(new Date())
-    			.setExpiration(new Date(System.currentTimeMillis() + EXPIRATIONTIME))
-    			.signWith(SignatureAlgorithm.HS256, "secretkey")
-    			.compact();
+    	String jwtToken = jwtTokenCodec.sign(userName, EXPIRATIONTIME);
     	
-    	logger.info("In controller - {}", "JWT Token created Successfully.");
+    	logger.info("In controller - JWT Token created for User ID {}.", userName);
     	return jwtToken;
     }
 }
@@ -0,0 +1,61 @@
+package com.stackroute.user.jwt;
+
+import java.util.Date;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+
+/*
+ * Issues and verifies the JWT tokens of the application. The signing key is derived from
+ * the secret once, the same way signWith(SignatureAlgorithm, String) derives it, so the
+ * tokens stay valid for the JwtFilter of the other services. The parser is built once and
+ * shared, as parsing does not change its state, a builder is still needed per token.
+ */
+public class JwtTokenCodec {
+
+	public static final String DEFAULT_SECRET = "secretkey";
+
+	private final SecretKey signingKey;
+	private final JwtParser parser;
+
+	public JwtTokenCodec() {
+		this(DEFAULT_SECRET);
+	}
+
+	public JwtTokenCodec(String secret) {
+		this.signingKey = signingKey(secret);
+		this.parser = Jwts.parser().setSigningKey(signingKey);
+	}
+
+	/* The secret is the base64 encoded HS256 key. */
+	public static SecretKey signingKey(String secret) {
+		return new SecretKeySpec(TextCodec.BASE64.decode(secret), SignatureAlgorithm.HS256.getJcaName());
+	}
+
+	/* Returns a token for the subject, issued now and expiring after expirationMillis. */
+	public String sign(String subject, long expirationMillis) {
+		return sign(subject, expirationMillis, null);
+	}
+
+	/* Returns a token for the subject carrying the id as its jti claim, when not null. */
+	public String sign(String subject, long expirationMillis, String id) {
+		long now = System.currentTimeMillis();
+		return Jwts.builder().setSubject(subject)
+				.setId(id)
+				.setIssuedAt(new Date(now))
+				.setExpiration(new Date(now + expirationMillis))
+				.signWith(SignatureAlgorithm.HS256, signingKey)
+				.compact();
+	}
+
+	/* Returns the claims of the token, throws a JwtException when the token is invalid or expired. */
+	public Claims parse(String token) {
+		return parser.parseClaimsJws(token).getBody();
+	}
+}
@@ -0,0 +1,64 @@
+package com.stackroute.user.jwt;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+
+/*
+ * Issues and verifies the long lived refresh tokens, from which new access tokens are
+ * minted without a database lookup. They are signed with their own secret, so the
+ * JwtFilter of the other services never accepts one as an access token. Each carries a
+ * random id, the only state kept is the TokenRevocationList of the ids of the logged out
+ * tokens.
+ */
+public class RefreshTokenCodec {
+
+	public static final String DEFAULT_SECRET = "refreshsecretkey";
+	public static final long DEFAULT_EXPIRATION = 7L * 24 * 60 * 60 * 1000;
+
+	private final JwtTokenCodec jwtTokenCodec;
+	private final TokenRevocationList revocationList;
+	private final long expirationMillis;
+
+	public RefreshTokenCodec() {
+		this(new JwtTokenCodec(DEFAULT_SECRET), new TokenRevocationList(), DEFAULT_EXPIRATION);
+	}
+
+	public RefreshTokenCodec(JwtTokenCodec jwtTokenCodec, TokenRevocationList revocationList, long expirationMillis) {
+		this.jwtTokenCodec = jwtTokenCodec;
+		this.revocationList = revocationList;
+		this.expirationMillis = expirationMillis;
+	}
+
+	public String issue(String userId) {
+		return jwtTokenCodec.sign(userId, expirationMillis, newTokenId());
+	}
+
+	/* Returns the user of the refresh token, throws a JwtException when it is invalid, expired or revoked. */
+	public String verify(String refreshToken) {
+		Claims claims = jwtTokenCodec.parse(refreshToken);
+		if (claims.getId() == null || revocationList.isRevoked(claims.getId())) {
+			throw new JwtException("Refresh token has been revoked.");
+		}
+		return claims.getSubject();
+	}
+
+	/* Revokes a valid refresh token, throws a JwtException when it is invalid or expired. */
+	public void revoke(String refreshToken) {
+		Claims claims = jwtTokenCodec.parse(refreshToken);
+		if (claims.getId() != null) {
+			revocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+		}
+	}
+
+	/* A random 128 bit id, 22 characters once encoded. */
+	private static String newTokenId() {
+		UUID uuid = UUID.randomUUID();
+		ByteBuffer bytes = ByteBuffer.allocate(16);
+		bytes.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+	}
+}
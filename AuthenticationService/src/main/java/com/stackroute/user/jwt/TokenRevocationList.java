@@ -0,0 +1,147 @@
+package com.stackroute.user.jwt;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * The ids of the revoked refresh tokens, each kept until the token would have expired
+ * anyway, so the list only holds the tokens that are revoked and still valid. When a
+ * file is given the list is loaded from it on start, and written to it every
+ * persistIntervalMillis when it changed, through a temporary file moved in place.
+ */
+public class TokenRevocationList {
+
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+	private final Map<String, Long> expirations = new ConcurrentHashMap<>();
+	private final Path file;
+	private final long persistIntervalMillis;
+	private volatile boolean dirty;
+	private ScheduledExecutorService scheduler;
+
+	/* A list held in memory only. */
+	public TokenRevocationList() {
+		this(null, 0);
+	}
+
+	public TokenRevocationList(Path file, long persistIntervalMillis) {
+		this.file = file;
+		this.persistIntervalMillis = persistIntervalMillis;
+	}
+
+	public void revoke(String tokenId, long expiresAtMillis) {
+		if (expiresAtMillis > System.currentTimeMillis()) {
+			expirations.put(tokenId, expiresAtMillis);
+			dirty = true;
+		}
+	}
+
+	public boolean isRevoked(String tokenId) {
+		return expirations.containsKey(tokenId);
+	}
+
+	public int size() {
+		return expirations.size();
+	}
+
+	/* Drops the ids of the tokens that have expired since they were revoked. */
+	public void purgeExpired() {
+		long now = System.currentTimeMillis();
+		if (expirations.values().removeIf(expiresAt -> expiresAt <= now)) {
+			dirty = true;
+		}
+	}
+
+	public void start() throws IOException {
+		if (file == null) {
+			return;
+		}
+		load();
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "token-revocation-persist");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::persistQuietly, persistIntervalMillis, persistIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/* Waits for a scheduled write in progress before the last write of the list. */
+	public void stop() {
+		if (scheduler != null) {
+			scheduler.shutdown();
+			try {
+				if (!scheduler.awaitTermination(persistIntervalMillis, TimeUnit.MILLISECONDS)) {
+					logger.warn("The revoked refresh tokens were still being persisted on stop");
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			persistQuietly();
+		}
+	}
+
+	private void load() throws IOException {
+		if (!Files.exists(file)) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			int separator = line.indexOf(' ');
+			if (separator <= 0) {
+				continue;
+			}
+			try {
+				long expiresAt = Long.parseLong(line.substring(separator + 1));
+				if (expiresAt > now) {
+					expirations.put(line.substring(0, separator), expiresAt);
+				}
+			} catch (NumberFormatException ex) {
+				logger.warn("Skipping the malformed line {} of {}", line, file);
+			}
+		}
+		logger.info("Loaded {} revoked refresh tokens", expirations.size());
+	}
+
+	/* Writes the list to the file when it changed since the last write. */
+	public synchronized void persist() throws IOException {
+		if (file == null || !dirty) {
+			return;
+		}
+		dirty = false;
+		purgeExpired();
+		if (file.toAbsolutePath().getParent() != null) {
+			Files.createDirectories(file.toAbsolutePath().getParent());
+		}
+		Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+			for (Map.Entry<String, Long> expiration : expirations.entrySet()) {
+				writer.write(expiration.getKey());
+				writer.write(' ');
+				writer.write(Long.toString(expiration.getValue()));
+				writer.newLine();
+			}
+		}
+		Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void persistQuietly() {
+		try {
+			persist();
+		} catch (IOException ex) {
+			dirty = true;
+			logger.warn("Could not persist the revoked refresh tokens to {}", file, ex);
+		}
+	}
+}
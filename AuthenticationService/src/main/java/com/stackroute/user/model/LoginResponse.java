@@ -0,0 +1,40 @@
+package com.stackroute.user.model;
+
+/*
+ * The body returned by the login and refresh handlers, holding the message, the JWT
+ * access token and the refresh token of one request. It is immutable and built per
+ * request, so concurrent logins never share it.
+ */
+public final class LoginResponse {
+
+	private final String message;
+	private final String token;
+	private final String refreshToken;
+
+	public LoginResponse(String message, String token) {
+		this(message, token, null);
+	}
+
+	public LoginResponse(String message, String token, String refreshToken) {
+		this.message = message;
+		this.token = token;
+		this.refreshToken = refreshToken;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	public String getRefreshToken() {
+		return refreshToken;
+	}
+
+	@Override
+	public String toString() {
+		return "LoginResponse [message=" + message + "]";
+	}
+}
@@ -0,0 +1,26 @@
+package com.stackroute.user.model;
+
+/*
+ * The body of the refresh and logout requests, holding the refresh token issued at login.
+ */
+public class RefreshRequest {
+
+	private String refreshToken;
+
+	public RefreshRequest() {
+		super();
+	}
+
+	public RefreshRequest(String refreshToken) {
+		super();
+		this.refreshToken = refreshToken;
+	}
+
+	public String getRefreshToken() {
+		return refreshToken;
+	}
+
+	public void setRefreshToken(String refreshToken) {
+		this.refreshToken = refreshToken;
+	}
+}
@@ -12,8 +12,6 @@ import com.stackroute.user.model.User;
 * */
 
 @Repository
-public interface UserAuthRepository  extends JpaRepository<User,String>{
-
-	public User findByUserIdAndPassword(String userId, String password);
+public interface UserAuthRepository  extends JpaRepository<User,String>, UserAuthRepositoryCustom{
 
 }
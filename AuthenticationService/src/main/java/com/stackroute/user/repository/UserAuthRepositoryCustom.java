@@ -0,0 +1,13 @@
+package com.stackroute.user.repository;
+
+import com.stackroute.user.model.User;
+
+/*
+ * Custom operations of UserAuthRepository, implemented in UserAuthRepositoryImpl with
+ * the EntityManager.
+ */
+public interface UserAuthRepositoryCustom {
+
+	void insert(User user);
+
+}
@@ -0,0 +1,30 @@
+package com.stackroute.user.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stackroute.user.model.User;
+
+/*
+ * EntityManager based implementation of UserAuthRepositoryCustom. Spring Data picks this
+ * class up as the fragment of UserAuthRepository because of its "Impl" suffix.
+ */
+public class UserAuthRepositoryImpl implements UserAuthRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/*
+	 * Inserts a new user with a single INSERT. save() merges an entity with an assigned id,
+	 * which selects it first. A user with the same userId violates the primary key and
+	 * surfaces as a DataIntegrityViolationException.
+	 */
+	@Override
+	@Transactional
+	public void insert(User user) {
+		entityManager.persist(user);
+		entityManager.flush();
+	}
+}
@@ -0,0 +1,83 @@
+package com.stackroute.user.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/*
+ * Hashes and verifies the passwords with bcrypt. The cost grows as 2^strength, pick it
+ * with the PasswordHashBenchmark against the login latency target. The work runs on a
+ * small executor with a bounded queue, which limits the CPU given to bcrypt: at most
+ * threads hashes run at once. The calling request thread still waits for its hash, up to
+ * the timeout, so up to threads + queueSize request threads can be parked here. A request
+ * arriving when the queue is full, or waiting longer than the timeout, is refused with a
+ * RejectedExecutionException rather than waiting longer.
+ */
+public class PasswordHasher {
+
+	public static final int DEFAULT_STRENGTH = 10;
+	public static final int DEFAULT_THREADS = 4;
+	public static final int DEFAULT_QUEUE_SIZE = 64;
+	public static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+	private final BCryptPasswordEncoder passwordEncoder;
+	private final ThreadPoolExecutor executor;
+	private final long timeoutMillis;
+
+	public PasswordHasher() {
+		this(DEFAULT_STRENGTH, DEFAULT_THREADS, DEFAULT_QUEUE_SIZE, DEFAULT_TIMEOUT_MILLIS);
+	}
+
+	public PasswordHasher(int strength, int threads, int queueSize, long timeoutMillis) {
+		this.passwordEncoder = new BCryptPasswordEncoder(strength);
+		this.timeoutMillis = timeoutMillis;
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueSize), runnable -> {
+					Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	public String hash(String rawPassword) {
+		return call(() -> passwordEncoder.encode(rawPassword));
+	}
+
+	/* Returns false when either password is missing. */
+	public boolean matches(String rawPassword, String passwordHash) {
+		if (rawPassword == null || passwordHash == null) {
+			return false;
+		}
+		return call(() -> passwordEncoder.matches(rawPassword, passwordHash));
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private <T> T call(Callable<T> task) {
+		Future<T> future = executor.submit(task);
+		try {
+			return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException ex) {
+			future.cancel(true);
+			throw new RejectedExecutionException("Password hashing timed out.", ex);
+		} catch (InterruptedException ex) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new RejectedExecutionException("Password hashing was interrupted.", ex);
+		} catch (ExecutionException ex) {
+			throw new IllegalStateException("Password hashing failed.", ex.getCause());
+		}
+	}
+}
@@ -4,8 +4,10 @@ import com.stackroute.user.util.exception.UserAlreadyExistsException;
 import com.stackroute.user.util.exception.UserNotFoundException;
 import com.stackroute.user.model.User;
 import com.stackroute.user.repository.UserAuthRepository;
+import com.stackroute.user.security.PasswordHasher;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 
@@ -29,36 +31,40 @@ public class UserAuthServiceImpl implements UserAuthService {
 	 * object using the new keyword.
 	 */
 	private UserAuthRepository userAuthRepo;
+	private PasswordHasher passwordHasher;
 	@Autowired
-	public UserAuthServiceImpl(UserAuthRepository userAuthRepo) {
+	public UserAuthServiceImpl(UserAuthRepository userAuthRepo, PasswordHasher passwordHasher) {
 		super();
 		this.userAuthRepo = userAuthRepo;
+		this.passwordHasher = passwordHasher;
 	}
 	
 	/*
-	 * This method should be used to find an existing User with correct password.
+	 * This method should be used to find an existing User with correct password. The user
+	 * is looked up by its id and the password is verified against the stored bcrypt hash.
 	 */
 
 	@Override
     public User findByUserIdAndPassword(String userId, String password) throws UserNotFoundException {
-		User user = userAuthRepo.findByUserIdAndPassword(userId, password);
-		if(user != null)
-			return user;
+		Optional<User> user = userAuthRepo.findById(userId);
+		if(user.isPresent() && passwordHasher.matches(password, user.get().getPassword()))
+			return user.get();
 		return null;
     }
 
 	/*
-	 * This method should be used to save a new User.
+	 * This method should be used to save a new User. Only the hash of the password is
+	 * stored, the confirmation password is not. The user is inserted with a single
+	 * statement, an existing userId is reported by the primary key constraint.
 	 */
     
     @Override
     public boolean saveUser(User user) throws UserAlreadyExistsException {
-    	Optional<User> isUserExists = userAuthRepo.findById(user.getUserId());
-    	if(isUserExists.isEmpty()) {
-    		userAuthRepo.save(user);
+    	try {
+    		userAuthRepo.insert(new User(user.getUserId(), passwordHasher.hash(user.getPassword()), null));
     		return true;
     	}
-    	else{
+    	catch(DataIntegrityViolationException e) {
     		throw new UserAlreadyExistsException("User Already Exists.");
     	}
     }
@@ -0,0 +1,31 @@
+package com.stackroute.user.trace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Writes one line per span of a finished trace. The logger is routed by logback.xml to
+ * its own asynchronous file appender, so the request thread only enqueues the lines.
+ */
+public class LogSpanExporter implements SpanExporter {
+
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	@Override
+	public void export(Span root) {
+		if (logger.isInfoEnabled()) {
+			write(root);
+		}
+	}
+
+	private void write(Span span) {
+		logger.info("trace={} span={} parent={} name={} start={} duration_us={} error={}",
+				Long.toHexString(span.getTraceId()), Long.toHexString(span.getSpanId()),
+				span.getParent() == null ? "-" : Long.toHexString(span.getParent().getSpanId()),
+				span.getName(), span.getStartEpochMillis(), span.getDurationNanos() / 1000,
+				span.getError() == null ? "-" : span.getError());
+		for (Span child : span.getChildren()) {
+			write(child);
+		}
+	}
+}
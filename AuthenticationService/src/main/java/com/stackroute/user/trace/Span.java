@@ -0,0 +1,83 @@
+package com.stackroute.user.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * A timed operation of a trace. A span without a parent is the root of its trace, the
+ * spans started while it is open are its children and share its trace id. Spans are
+ * only touched by the thread that started them.
+ */
+public class Span {
+
+	private final Span parent;
+	private final long traceId;
+	private final long spanId;
+	private final String name;
+	private final long startEpochMillis;
+	private final long startNanos;
+	private long durationNanos;
+	private String error;
+	private List<Span> children;
+
+	public Span(Span parent, String name) {
+		this.parent = parent;
+		this.spanId = ThreadLocalRandom.current().nextLong();
+		this.traceId = parent == null ? spanId : parent.traceId;
+		this.name = name;
+		this.startEpochMillis = System.currentTimeMillis();
+		this.startNanos = System.nanoTime();
+		if (parent != null) {
+			if (parent.children == null) {
+				parent.children = new ArrayList<>(4);
+			}
+			parent.children.add(this);
+		}
+	}
+
+	/* Ends the span, the error is the exception that ended the operation or null. */
+	public void finish(Throwable error) {
+		this.durationNanos = System.nanoTime() - startNanos;
+		this.error = error == null ? null : error.getClass().getSimpleName();
+	}
+
+	public Span getParent() {
+		return parent;
+	}
+
+	public long getTraceId() {
+		return traceId;
+	}
+
+	public long getSpanId() {
+		return spanId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getStartEpochMillis() {
+		return startEpochMillis;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public List<Span> getChildren() {
+		return children == null ? Collections.emptyList() : Collections.unmodifiableList(children);
+	}
+
+	@Override
+	public String toString() {
+		return "Span [name=" + name + ", traceId=" + Long.toHexString(traceId) + ", spanId="
+				+ Long.toHexString(spanId) + ", durationNanos=" + durationNanos + ", error=" + error + "]";
+	}
+}
@@ -0,0 +1,83 @@
+package com.stackroute.user.test.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.stackroute.user.jwt.JwtTokenCodec;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/*
+ * Compares the per-request cost of signing and parsing a token the way the controller and
+ * the JwtFilter used to do it, deriving the key and building the parser on every call,
+ * with the prebuilt JwtTokenCodec. Run it from the AuthenticationService directory with
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *       "-Dexec.args=-cp %classpath com.stackroute.user.test.benchmark.JwtTokenBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+	private static final long EXPIRATIONTIME = 300000;
+
+	private JwtTokenCodec jwtTokenCodec;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtTokenCodec = new JwtTokenCodec();
+		token = jwtTokenCodec.sign("Jhon123", 24 * 60 * 60 * 1000L);
+	}
+
+	@Benchmark
+	public String signPerRequest() {
+		return Jwts.builder().setSubject("Jhon123")
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + EXPIRATIONTIME))
+				.signWith(SignatureAlgorithm.HS256, "secretkey")
+				.compact();
+	}
+
+	@Benchmark
+	public String signPrebuilt() {
+		return jwtTokenCodec.sign("Jhon123", EXPIRATIONTIME);
+	}
+
+	@Benchmark
+	public Claims parsePerRequest() {
+		return Jwts.parser()
+				.setSigningKey("secretkey")
+				.parseClaimsJws(token)
+				.getBody();
+	}
+
+	@Benchmark
+	public Claims parsePrebuilt() {
+		return jwtTokenCodec.parse(token);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JwtTokenBenchmark.class.getSimpleName()).build()).run();
+	}
+}
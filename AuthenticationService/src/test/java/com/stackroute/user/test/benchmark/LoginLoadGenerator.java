@@ -0,0 +1,89 @@
+package com.stackroute.user.test.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Load test of the login endpoint of a running AuthenticationService. It registers the
+ * users once, then fires the logins from concurrent clients and prints the throughput and
+ * the latency percentiles. Compare a run against the service started with the default
+ * profile and one started with --spring.profiles.active=prod. Run it from the
+ * AuthenticationService directory with
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *       "-Dexec.args=-cp %classpath com.stackroute.user.test.benchmark.LoginLoadGenerator
+ *       http://localhost:8082 <clients> <logins> <users>"
+ */
+public class LoginLoadGenerator {
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8082";
+		int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+		int logins = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+		int users = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+		HttpClient httpClient = HttpClient.newBuilder()
+				.executor(Executors.newFixedThreadPool(clients))
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		for (int user = 0; user < users; user++) {
+			httpClient.send(request(baseUrl + "/api/v1/auth/register", user), HttpResponse.BodyHandlers.discarding());
+		}
+
+		long[] latencies = new long[logins];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger failures = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(clients);
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		long start = System.nanoTime();
+		for (int client = 0; client < clients; client++) {
+			executor.execute(() -> {
+				for (int login = next.getAndIncrement(); login < logins; login = next.getAndIncrement()) {
+					long sent = System.nanoTime();
+					try {
+						HttpResponse<Void> response = httpClient.send(request(baseUrl + "/api/v1/auth/login", login % users),
+								HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() != 200) {
+							failures.incrementAndGet();
+						}
+					} catch (Exception ex) {
+						failures.incrementAndGet();
+					}
+					latencies[login] = System.nanoTime() - sent;
+				}
+				done.countDown();
+			});
+		}
+		done.await();
+		long elapsedNanos = System.nanoTime() - start;
+		executor.shutdown();
+
+		Arrays.sort(latencies);
+		System.out.printf("%d logins from %d clients in %.1f s, %d failed%n", logins, clients, elapsedNanos / 1e9,
+				failures.get());
+		System.out.printf("throughput %.0f logins/s%n", logins / (elapsedNanos / 1e9));
+		System.out.printf("latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n", percentile(latencies, 0.50),
+				percentile(latencies, 0.99), latencies[logins - 1] / 1e6);
+		System.exit(0);
+	}
+
+	private static HttpRequest request(String url, int user) {
+		String body = "{\"userId\":\"LoadUser" + user + "\",\"password\":\"123456\",\"cpassword\":\"123456\"}";
+		return HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+	}
+
+	private static double percentile(long[] sortedLatencies, double percentile) {
+		return sortedLatencies[(int) Math.ceil(percentile * sortedLatencies.length) - 1] / 1e6;
+	}
+}
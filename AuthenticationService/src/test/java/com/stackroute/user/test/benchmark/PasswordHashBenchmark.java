@@ -0,0 +1,66 @@
+package com.stackroute.user.test.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.stackroute.user.security.PasswordHasher;
+
+/*
+ * Samples the latency of verifying a password, the work of a login, for each bcrypt
+ * strength. Pick the highest strength whose p0.99 stays within the login latency target,
+ * and set it as auth.password.strength. Run it from the AuthenticationService directory with
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *       "-Dexec.args=-cp %classpath com.stackroute.user.test.benchmark.PasswordHashBenchmark"
+ *
+ * Add -t <threads> to the arguments to measure the latency under concurrent logins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+	@Param({ "8", "10", "12" })
+	private int strength;
+
+	private PasswordHasher passwordHasher;
+	private String passwordHash;
+
+	@Setup
+	public void setUp() {
+		passwordHasher = new PasswordHasher(strength, Runtime.getRuntime().availableProcessors(), 1024, 60000);
+		passwordHash = passwordHasher.hash("123456");
+	}
+
+	@TearDown
+	public void tearDown() {
+		passwordHasher.shutdown();
+	}
+
+	@Benchmark
+	public boolean verify() {
+		return passwordHasher.matches("123456", passwordHash);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(PasswordHashBenchmark.class.getSimpleName()).build()).run();
+	}
+}
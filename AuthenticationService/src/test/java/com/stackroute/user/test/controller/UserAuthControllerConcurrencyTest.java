@@ -0,0 +1,78 @@
+package com.stackroute.user.test.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.stackroute.user.controller.UserAuthController;
+import com.stackroute.user.jwt.JwtTokenCodec;
+import com.stackroute.user.jwt.RefreshTokenCodec;
+import com.stackroute.user.model.LoginResponse;
+import com.stackroute.user.model.User;
+import com.stackroute.user.service.UserAuthService;
+
+public class UserAuthControllerConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int LOGINS = 4000;
+
+    private UserAuthController userAuthController;
+    private JwtTokenCodec jwtTokenCodec;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        UserAuthService userAuthService = mock(UserAuthService.class);
+        when(userAuthService.findByUserIdAndPassword(anyString(), eq("123456")))
+                .thenAnswer(invocation -> new User(invocation.getArgument(0), "123456", null));
+        jwtTokenCodec = new JwtTokenCodec();
+        userAuthController = new UserAuthController(userAuthService, new RefreshTokenCodec());
+        userAuthController.setJwtTokenCodec(jwtTokenCodec);
+    }
+
+    @Test
+    public void parallelLoginsReturnTheirOwnToken() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<LoginResponse>>> responses = new ArrayList<>(LOGINS);
+        try {
+            for (int i = 0; i < LOGINS; i++) {
+                String password = i % 10 == 0 ? "654321" : "123456";
+                User user = new User("User" + i, password, password);
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return userAuthController.login(user);
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < LOGINS; i++) {
+                ResponseEntity<LoginResponse> response = responses.get(i).get();
+                if (i % 10 == 0) {
+                    assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+                    assertEquals(null, response.getBody().getToken());
+                    assertEquals("Invalid Credentials.", response.getBody().getMessage());
+                } else {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertEquals("User" + i, jwtTokenCodec.parse(response.getBody().getToken()).getSubject());
+                    assertEquals("user successfully logged in", response.getBody().getMessage());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
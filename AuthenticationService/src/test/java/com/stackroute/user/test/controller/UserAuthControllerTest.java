@@ -5,12 +5,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stackroute.user.model.User;
 import com.stackroute.user.service.UserAuthService;
 import com.stackroute.user.controller.UserAuthController;
+import com.stackroute.user.jwt.RefreshTokenCodec;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
-import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,7 +39,6 @@ public class UserAuthControllerTest {
     
     private User user;
 
-    @InjectMocks
     private UserAuthController userAuthController;
 
 
@@ -47,6 +46,7 @@ public class UserAuthControllerTest {
     public void setUp() throws Exception {
 
         MockitoAnnotations.initMocks(this);
+        userAuthController = new UserAuthController(userAuthService, new RefreshTokenCodec());
         mockMvc = MockMvcBuilders.standaloneSetup(userAuthController).build();
 
         user = new User();
@@ -0,0 +1,84 @@
+package com.stackroute.user.test.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.stackroute.user.jwt.JwtTokenCodec;
+import com.stackroute.user.jwt.RefreshTokenCodec;
+import com.stackroute.user.jwt.TokenRevocationList;
+
+import io.jsonwebtoken.JwtException;
+
+public class RefreshTokenCodecTest {
+
+    private TokenRevocationList revocationList;
+    private RefreshTokenCodec refreshTokenCodec;
+
+    @BeforeEach
+    public void setUp() {
+        revocationList = new TokenRevocationList();
+        refreshTokenCodec = new RefreshTokenCodec(new JwtTokenCodec(RefreshTokenCodec.DEFAULT_SECRET), revocationList,
+                RefreshTokenCodec.DEFAULT_EXPIRATION);
+    }
+
+    @Test
+    public void refreshTokenIsVerifiedUntilRevoked() {
+        String refreshToken = refreshTokenCodec.issue("Jhon123");
+        assertNotEquals(refreshToken, refreshTokenCodec.issue("Jhon123"));
+        assertEquals("Jhon123", refreshTokenCodec.verify(refreshToken));
+
+        refreshTokenCodec.revoke(refreshToken);
+        assertEquals(1, revocationList.size());
+        assertThrows(JwtException.class, () -> refreshTokenCodec.verify(refreshToken));
+    }
+
+    @Test
+    public void accessAndRefreshTokensAreNotInterchangeable() {
+        JwtTokenCodec accessTokenCodec = new JwtTokenCodec();
+        String accessToken = accessTokenCodec.sign("Jhon123", 300000);
+        String refreshToken = refreshTokenCodec.issue("Jhon123");
+
+        assertThrows(JwtException.class, () -> refreshTokenCodec.verify(accessToken));
+        assertThrows(JwtException.class, () -> accessTokenCodec.parse(refreshToken));
+    }
+
+    @Test
+    public void revocationListIsPersistedAndLoaded(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("revoked-refresh-tokens");
+        TokenRevocationList persistedList = new TokenRevocationList(file, 60000);
+        persistedList.start();
+        persistedList.revoke("first", System.currentTimeMillis() + 60000);
+        persistedList.revoke("expired", System.currentTimeMillis() - 1);
+        persistedList.stop();
+        assertTrue(Files.exists(file));
+
+        TokenRevocationList loadedList = new TokenRevocationList(file, 60000);
+        loadedList.start();
+        assertTrue(loadedList.isRevoked("first"));
+        assertFalse(loadedList.isRevoked("expired"));
+        assertEquals(1, loadedList.size());
+        loadedList.stop();
+    }
+
+    @Test
+    public void malformedLinesOfTheRevocationFileAreSkipped(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("revoked-refresh-tokens");
+        Files.write(file, ("first " + (System.currentTimeMillis() + 60000) + "\nsecond notanumber\n").getBytes());
+
+        TokenRevocationList loadedList = new TokenRevocationList(file, 60000);
+        loadedList.start();
+        assertTrue(loadedList.isRevoked("first"));
+        assertFalse(loadedList.isRevoked("second"));
+        loadedList.stop();
+    }
+}
@@ -6,11 +6,13 @@ import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.stackroute.user.model.User;
@@ -51,6 +53,23 @@ public class UserRepositoryTest {
         assertThat(user.getUserId(), is(fetchUser.getUserId()));
     }
 
+    @Test
+    public void testInsertUserSuccess() {
+    	userAuthRepository.insert(user);
+        User fetchUser = userAuthRepository.findById(user.getUserId()).get();
+        assertThat(user.getUserId(), is(fetchUser.getUserId()));
+    }
+
+    @Test
+    public void testInsertUserFailure() {
+    	userAuthRepository.insert(user);
+    	User sameUser = new User();
+    	sameUser.setUserId(user.getUserId());
+    	sameUser.setPassword("654321");
+    	sameUser.setCpassword("654321");
+    	assertThrows(DataIntegrityViolationException.class, () -> userAuthRepository.insert(sameUser));
+    }
+
     @Test
     public void testLoginUserSuccess() {
     	userAuthRepository.save(user);
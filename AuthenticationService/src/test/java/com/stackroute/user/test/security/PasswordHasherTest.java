@@ -0,0 +1,56 @@
+package com.stackroute.user.test.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stackroute.user.security.PasswordHasher;
+
+public class PasswordHasherTest {
+
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    public void setUp() {
+        passwordHasher = new PasswordHasher(4, 1, 1, 5000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    public void hashIsSaltedAndVerified() {
+        String hash = passwordHasher.hash("123456");
+        assertNotEquals("123456", hash);
+        assertNotEquals(hash, passwordHasher.hash("123456"));
+        assertTrue(passwordHasher.matches("123456", hash));
+        assertFalse(passwordHasher.matches("654321", hash));
+        assertFalse(passwordHasher.matches(null, hash));
+    }
+
+    @Test
+    public void hashingIsRefusedWhenTheExecutorIsSaturated() throws InterruptedException {
+        PasswordHasher slowPasswordHasher = new PasswordHasher(14, 1, 1, 5000);
+        try {
+            Thread[] callers = new Thread[2];
+            for (int i = 0; i < callers.length; i++) {
+                callers[i] = new Thread(() -> slowPasswordHasher.hash("123456"));
+                callers[i].setDaemon(true);
+                callers[i].start();
+            }
+            Thread.sleep(200);
+            assertThrows(RejectedExecutionException.class, () -> slowPasswordHasher.hash("123456"));
+        } finally {
+            slowPasswordHasher.shutdown();
+        }
+    }
+}
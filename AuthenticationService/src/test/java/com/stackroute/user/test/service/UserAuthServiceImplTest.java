@@ -4,16 +4,20 @@ import com.stackroute.user.util.exception.UserAlreadyExistsException;
 import com.stackroute.user.util.exception.UserNotFoundException;
 import com.stackroute.user.model.User;
 import com.stackroute.user.repository.UserAuthRepository;
+import com.stackroute.user.security.PasswordHasher;
 import com.stackroute.user.service.UserAuthServiceImpl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Optional;
 
@@ -23,15 +27,17 @@ public class UserAuthServiceImplTest {
     private UserAuthRepository userAuthRepository;
 
     private User user;
-    @InjectMocks
     private UserAuthServiceImpl userAuthServiceImpl;
 
     Optional<User> optional;
+    private PasswordHasher passwordHasher;
 
 
     @BeforeEach
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        passwordHasher = new PasswordHasher(4, 1, 4, 5000);
+        userAuthServiceImpl = new UserAuthServiceImpl(userAuthRepository, passwordHasher);
         user = new User();
         user.setUserId("Jhon123");
         user.setPassword("123456");
@@ -42,26 +48,46 @@ public class UserAuthServiceImplTest {
     @Test
     public void testSaveUserSuccess() throws UserAlreadyExistsException {
 
-        Mockito.when(userAuthRepository.save(user)).thenReturn(user);
         boolean flag = userAuthServiceImpl.saveUser(user);
         assertEquals(true, flag);
+        Mockito.verify(userAuthRepository, Mockito.never()).findById("Jhon123");
     }
 
     @Test
     public void testSaveUserFailure() {
 
-        Mockito.when(userAuthRepository.findById("Jhon123")).thenReturn(optional);
-        Mockito.when(userAuthRepository.save(user)).thenReturn(user);
+        Mockito.doThrow(new DataIntegrityViolationException("Duplicate entry 'Jhon123' for key 'PRIMARY'"))
+                .when(userAuthRepository).insert(Mockito.any(User.class));
         assertThrows(
         		UserAlreadyExistsException.class,
                     () -> { userAuthServiceImpl.saveUser(user); });
 
     }
 
+    @Test
+    public void testSaveUserStoresPasswordHash() throws UserAlreadyExistsException {
+
+        ArgumentCaptor<User> savedUser = ArgumentCaptor.forClass(User.class);
+        userAuthServiceImpl.saveUser(user);
+        Mockito.verify(userAuthRepository).insert(savedUser.capture());
+        assertNotEquals("123456", savedUser.getValue().getPassword());
+        assertEquals(true, passwordHasher.matches("123456", savedUser.getValue().getPassword()));
+        assertNull(savedUser.getValue().getCpassword());
+    }
+
     @Test
     public void testFindByUserIdAndPassword() throws UserNotFoundException {
-        Mockito.when(userAuthRepository.findByUserIdAndPassword("Jhon123", "123456")).thenReturn(user);
+        User storedUser = new User("Jhon123", passwordHasher.hash("123456"), null);
+        Mockito.when(userAuthRepository.findById("Jhon123")).thenReturn(Optional.of(storedUser));
         User fetchedUser = userAuthServiceImpl.findByUserIdAndPassword("Jhon123", "123456");
         assertEquals("Jhon123", fetchedUser.getUserId());
     }
+
+    @Test
+    public void testFindByUserIdAndWrongPassword() throws UserNotFoundException {
+        User storedUser = new User("Jhon123", passwordHasher.hash("123456"), null);
+        Mockito.when(userAuthRepository.findById("Jhon123")).thenReturn(Optional.of(storedUser));
+        assertNull(userAuthServiceImpl.findByUserIdAndPassword("Jhon123", "654321"));
+        assertNull(userAuthServiceImpl.findByUserIdAndPassword("Becky123", "123456"));
+    }
 }
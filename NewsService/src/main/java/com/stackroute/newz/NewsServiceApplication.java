@@ -1,11 +1,36 @@
 package com.stackroute.newz;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
 
+import com.stackroute.newz.dedup.NewsUrlRegistry;
+import com.stackroute.newz.idgen.BlockIdAllocator;
+import com.stackroute.newz.jwtfilter.ClaimsCache;
 import com.stackroute.newz.jwtfilter.JwtFilter;
+import com.stackroute.newz.jwtfilter.JwtTokenCodec;
+import com.stackroute.newz.reminder.LogReminderSink;
+import com.stackroute.newz.reminder.ReminderScheduler;
+import com.stackroute.newz.reminder.ReminderSink;
+import com.stackroute.newz.model.NewsArticle;
+import com.stackroute.newz.repository.IdCounterRepository;
+import com.stackroute.newz.repository.NewsArticleRepository;
+import com.stackroute.newz.repository.NewsRepository;
+import com.stackroute.newz.repository.NewsUrlRepository;
+import com.stackroute.newz.repository.ReminderCursorRepository;
+import com.stackroute.newz.search.NewsSearchIndex;
+import com.stackroute.newz.service.NewsService;
+import com.stackroute.newz.trace.InMemorySpanExporter;
+import com.stackroute.newz.trace.LogSpanExporter;
+import com.stackroute.newz.trace.SpanExporter;
+import com.stackroute.newz.trace.TracingAspect;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /*
  * The @SpringBootApplication annotation is equivalent to using @Configuration, @EnableAutoConfiguration 
@@ -15,6 +40,106 @@ import com.stackroute.newz.jwtfilter.JwtFilter;
 @SpringBootApplication
 public class NewsServiceApplication {
 
+	/*
+	 * Define the bean for the inverted indexes of the news searched by the users, bounded
+	 * in number of users and evicted once idle.
+	 */
+
+    @Bean
+    public NewsSearchIndex newsSearchIndex(@Value("${newz.news.search.max-users:1000}") long maxUsers,
+    		@Value("${newz.news.search.idle-minutes:30}") long idleMinutes) {
+    	return new NewsSearchIndex(maxUsers, idleMinutes);
+    }
+
+	/*
+	 * Define the bean allocating the newsId of the news added without one, from blocks of
+	 * ids leased from the "news" counter. The counter is seeded here, before the service
+	 * takes requests, with the highest newsId stored in either storage, so the ids never
+	 * collide with the stored ones. Both lookups read one entry of a newsId index.
+	 */
+
+    @Bean
+    public BlockIdAllocator newsIdAllocator(IdCounterRepository idCounterRepository, NewsRepository newsRepository,
+    		NewsArticleRepository newsArticleRepository, @Value("${newz.news.id.block-size:1000}") int blockSize) {
+    	BlockIdAllocator newsIdAllocator = new BlockIdAllocator(idCounterRepository, "news", blockSize);
+    	newsIdAllocator.seed(Math.max(newsRepository.findMaxNewsId(), newsArticleRepository.findTopByOrderByNewsIdDesc()
+    			.map(NewsArticle::getNewsId).orElse(0)));
+    	return newsIdAllocator;
+    }
+
+	/*
+	 * Define the bean keeping the canonical URLs of the news unique per user, with a Bloom
+	 * filter of the URLs of each recently active user. The NewsService is injected lazily
+	 * since it uses the registry, it tells whether the news holding a URL still exists.
+	 */
+
+    @Bean
+    public NewsUrlRegistry newsUrlRegistry(NewsUrlRepository newsUrlRepository, @Lazy NewsService newsService,
+    		@Value("${newz.news.dedup.max-users:10000}") long maxUsers,
+    		@Value("${newz.news.dedup.idle-minutes:30}") long idleMinutes,
+    		@Value("${newz.news.dedup.expected-urls-per-user:1000}") int expectedUrlsPerUser,
+    		@Value("${newz.news.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+    	return new NewsUrlRegistry(newsUrlRepository, newsService::existsNews, maxUsers, idleMinutes,
+    			expectedUrlsPerUser, falsePositiveRate);
+    }
+
+	/*
+	 * Define the beans dispatching the due news reminders, only when newz.reminder.enabled
+	 * is true. Of all the instances with it enabled, only the one holding the lease on the
+	 * reminder cursor dispatches. The NewsService is injected lazily since it reports its
+	 * writes back to the scheduler. Define another ReminderSink bean to deliver the
+	 * reminders elsewhere than to the log.
+	 */
+
+    @Bean
+    @ConditionalOnProperty(name = "newz.reminder.enabled", havingValue = "true")
+    public ReminderSink reminderSink() {
+    	return new LogReminderSink();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "newz.reminder.enabled", havingValue = "true")
+    public ReminderScheduler reminderScheduler(@Lazy NewsService newsService,
+    		ReminderCursorRepository reminderCursorRepository, ReminderSink reminderSink,
+    		@Value("${newz.reminder.tick-millis:1000}") long tickMillis,
+    		@Value("${newz.reminder.lookahead-millis:600000}") long lookaheadMillis,
+    		@Value("${newz.reminder.wheel-size:64}") int wheelSize,
+    		@Value("${newz.reminder.levels:4}") int levels,
+    		@Value("${newz.reminder.batch-size:500}") int batchSize,
+    		@Value("${newz.reminder.lease-millis:30000}") long leaseMillis) {
+    	return new ReminderScheduler(newsService::streamRemindersDueBetween, reminderCursorRepository, reminderSink,
+    			tickMillis, lookaheadMillis, wheelSize, levels, batchSize, leaseMillis);
+    }
+
+	/*
+	 * Define the bean for the cache of verified JWT claims shared by the JwtFilter. Its hit
+	 * and miss counts are published as the jwt.claims.cache counter, tagged by result.
+	 */
+
+    @Bean
+    public ClaimsCache claimsCache(@Value("${jwt.claims-cache.size:10000}") int maxSize,
+    		@Value("${jwt.claims-cache.max-ttl:300000}") long maxTtlMillis, MeterRegistry meterRegistry) {
+    	ClaimsCache claimsCache = new ClaimsCache(maxSize, maxTtlMillis);
+    	FunctionCounter.builder("jwt.claims.cache", claimsCache, ClaimsCache::getHits)
+    			.tag("result", "hit")
+    			.description("The JWT tokens whose claims were found in the cache")
+    			.register(meterRegistry);
+    	FunctionCounter.builder("jwt.claims.cache", claimsCache, ClaimsCache::getMisses)
+    			.tag("result", "miss")
+    			.description("The JWT tokens parsed and verified because their claims were not cached")
+    			.register(meterRegistry);
+    	return claimsCache;
+    }
+
+	/*
+	 * Define the bean verifying the JWT tokens, its signing key is derived once at startup.
+	 */
+
+    @Bean
+    public JwtTokenCodec jwtTokenCodec(@Value("${jwt.secret:secretkey}") String secret) {
+    	return new JwtTokenCodec(secret);
+    }
+
 	/*
 	 * Define the bean for Filter registration. Create a new FilterRegistrationBean
 	 * object and use setFilter() method to set new instance of JwtFilter object.
@@ -22,13 +147,32 @@ public class NewsServiceApplication {
 	 */
 
     @Bean
-    public FilterRegistrationBean<JwtFilter> jwtFilter() {
+    public FilterRegistrationBean<JwtFilter> jwtFilter(ClaimsCache claimsCache, JwtTokenCodec jwtTokenCodec) {
     	final FilterRegistrationBean<JwtFilter> registrationBean = new FilterRegistrationBean<JwtFilter>();
-    	registrationBean.setFilter(new JwtFilter());
+    	registrationBean.setFilter(new JwtFilter(claimsCache, jwtTokenCodec));
     	registrationBean.addUrlPatterns("/api/*");
     	return registrationBean;
     }
-    
+
+	/*
+	 * Define the beans tracing the service and repository calls, only when tracing.enabled
+	 * is true. The traces are written to the trace log file, or kept in memory when
+	 * tracing.exporter is memory.
+	 */
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+    public SpanExporter spanExporter(@Value("${tracing.exporter:file}") String exporter,
+    		@Value("${tracing.memory.capacity:1000}") int capacity) {
+    	return "memory".equals(exporter) ? new InMemorySpanExporter(capacity) : new LogSpanExporter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+    public TracingAspect tracingAspect(SpanExporter spanExporter) {
+    	return new TracingAspect(spanExporter);
+    }
+
 	/*
 	 * You need to run SpringApplication.run, because this method start whole spring
 	 * framework. Code below integrates your main() with SpringBoot
@@ -1,12 +1,21 @@
 package com.stackroute.newz.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,10 +23,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsIngestStatus;
+import com.stackroute.newz.model.NewsPage;
 import com.stackroute.newz.service.NewsService;
+import com.stackroute.newz.util.exception.NewsAlreadyExistsException;
 import com.stackroute.newz.util.exception.NewsNotFoundException;
 
 /*
@@ -37,11 +58,23 @@ public class NewsController {
 	 * autowiring) Please note that we should not create any object using the new
 	 * keyword
 	 */
+	private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
 	private NewsService newsService;
+	private ObjectWriter newsWriter;
+	private ObjectReader newsReader;
 	
 	@Autowired
 	public NewsController(NewsService newsService) {
 		this.newsService = newsService;
+		setObjectMapper(Jackson2ObjectMapperBuilder.json().build());
+	}
+	
+	/* Replaces the default mapper of the NDJSON endpoints by the application ObjectMapper. */
+	@Autowired
+	public void setObjectMapper(ObjectMapper objectMapper) {
+		this.newsWriter = objectMapper.writerFor(News.class);
+		this.newsReader = objectMapper.readerFor(News.class);
 	}
 	
 	private final Logger logger = LoggerFactory.getLogger(this.getClass());
@@ -52,21 +85,123 @@ public class NewsController {
 	 * database.This handler method should return any one of the status messages
 	 * basis on different situations: 
 	 * 1. 201(CREATED) - If the news created successfully. 
-	 * 2. 409(CONFLICT) - If the newsId conflicts with any existing user.
+	 * 2. 409(CONFLICT) - If the newsId conflicts with any existing user. When the user
+	 * already has a news with the same URL, the 409 carries that news, and its URL in
+	 * the Location header.
 	 * 
 	 * This handler method should map to the URL "/api/v1/news" using HTTP POST method
 	 */
 	@PostMapping
 	public ResponseEntity<News> createNews(@RequestBody News news){
-		Boolean isNewsExists = newsService.addNews(news);
-		if(isNewsExists == true) {
-			logger.info("In controller - {}", "News created: " +news);
-			return new ResponseEntity<News>(news, HttpStatus.CREATED);
+		try {
+			Boolean isNewsExists = newsService.addNews(news);
+			if(isNewsExists == true) {
+				logger.info("In controller - News ID {} created for user ID {}.", news.getNewsId(), news.getAuthor());
+				return new ResponseEntity<News>(news, HttpStatus.CREATED);
+			}
 		}
-		logger.info("In controller - {}", "News ID "+ news.getNewsId() + " already exists.");
+		catch (NewsAlreadyExistsException e) {
+			logger.info("In controller - {}", e.getMessage());
+			return existingNews(news.getAuthor(), e.getExistingNewsId());
+		}
+		logger.info("In controller - News ID {} already exists.", news.getNewsId());
 		return new ResponseEntity<News>(HttpStatus.CONFLICT);
 	}
 
+	private ResponseEntity<News> existingNews(String userId, int newsId) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setLocation(UriComponentsBuilder.fromPath("/api/v1/news/{userId}/{newsId}")
+				.buildAndExpand(userId, newsId).toUri());
+		try {
+			return new ResponseEntity<News>(newsService.getNewsByNewsId(userId, newsId), headers, HttpStatus.CONFLICT);
+		}
+		catch (NewsNotFoundException e) {
+			return new ResponseEntity<News>(headers, HttpStatus.CONFLICT);
+		}
+	}
+
+	/*
+	 * Define a handler method which will create many news at once by reading a JSON
+	 * array of news from request body. The news are grouped by author and written with
+	 * unordered bulk writes. This handler method should return 200(OK) along with the
+	 * status (CREATED, CONFLICT, INVALID or FAILED) of every news, in request order.
+	 * 
+	 * This handler method should map to the URL "/api/v1/news/batch" using HTTP POST method
+	 */
+	@PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<NewsIngestStatus>> createAllNews(@RequestBody List<News> newsList){
+		List<NewsIngestStatus> statuses = newsService.addAllNews(newsList.iterator());
+		logger.info("In controller - Batch of {} news ingested.", statuses.size());
+		return new ResponseEntity<List<NewsIngestStatus>>(statuses, HttpStatus.OK);
+	}
+
+	/*
+	 * Same as above for a newline delimited JSON stream of news. The news are read from
+	 * the request while they are written, so the size of the stream is not bounded by
+	 * memory. A malformed news stops the ingestion: the news read before it are still
+	 * written, since earlier batches already are, and their statuses are returned with
+	 * 200(OK) followed by a MALFORMED status for the line that could not be read.
+	 */
+	@PostMapping(value = "/batch", consumes = APPLICATION_NDJSON)
+	public ResponseEntity<List<NewsIngestStatus>> createAllNewsFromStream(InputStream body) throws IOException{
+		try (MappingIterator<News> newsIterator = newsReader.readValues(body)) {
+			UntilMalformedIterator wellFormedNews = new UntilMalformedIterator(newsIterator);
+			List<NewsIngestStatus> statuses = new ArrayList<>(newsService.addAllNews(wellFormedNews));
+			if(wellFormedNews.malformed != null) {
+				logger.info("In controller - Malformed news in stream at index {}: {}", statuses.size(),
+						wellFormedNews.malformed.getMessage());
+				statuses.add(new NewsIngestStatus(statuses.size(), null, NewsIngestStatus.Status.MALFORMED));
+			}
+			logger.info("In controller - Stream of {} news ingested.", statuses.size());
+			return new ResponseEntity<List<NewsIngestStatus>>(statuses, HttpStatus.OK);
+		}
+	}
+
+	/*
+	 * Reads the news of the stream ahead of the service and ends at the first malformed
+	 * one, so the news before it are ingested and the error is kept for the response.
+	 */
+	private static final class UntilMalformedIterator implements Iterator<News> {
+
+		private final MappingIterator<News> newsIterator;
+		private News next;
+		private boolean hasNext;
+		private RuntimeException malformed;
+
+		private UntilMalformedIterator(MappingIterator<News> newsIterator) {
+			this.newsIterator = newsIterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(hasNext || malformed != null) {
+				return hasNext;
+			}
+			try {
+				if(newsIterator.hasNext()) {
+					next = newsIterator.next();
+					hasNext = true;
+				}
+			}
+			catch(RuntimeException e) {
+				/* MappingIterator wraps the parse and mapping errors of the stream. */
+				if(!(e instanceof RuntimeJsonMappingException) && !(e.getCause() instanceof JsonProcessingException))
+					throw e;
+				malformed = e;
+			}
+			return hasNext;
+		}
+
+		@Override
+		public News next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			hasNext = false;
+			return next;
+		}
+	}
+
 	/*
 	 * Define a handler method which will delete a news from a database.
 	 * This handler method should return any one of the status messages basis 
@@ -84,10 +219,10 @@ public class NewsController {
 	public ResponseEntity<News> deleteNewsById(@PathVariable("userId") String userId, @PathVariable("newsId") Integer newsId){
 		Boolean isNewsDeleted = newsService.deleteNews(userId, newsId);
 		if(isNewsDeleted == true) {
-			logger.info("In controller - {}", "News deleted for user ID: "+userId+ " and news ID: " +newsId);
+			logger.info("In controller - News deleted for user ID: {} and news ID: {}", userId, newsId);
 			return new ResponseEntity<News>(HttpStatus.OK);
 		}
-		logger.info("In controller - {}", "News not found for user ID: "+userId+ " and news ID: " +newsId);
+		logger.info("In controller - News not found for user ID: {} and news ID: {}", userId, newsId);
 		return new ResponseEntity<News>(HttpStatus.NOT_FOUND);
 	}
 	
@@ -111,15 +246,15 @@ public class NewsController {
 			allNews = newsService.getAllNewsByUserId(userId);
 			if(allNews != null) {
 			newsService.deleteAllNews(userId);
-			logger.info("In controller - {}", "All News deleted for User ID - " +userId);
+			logger.info("In controller - All News deleted for User ID - {}", userId);
 			return new ResponseEntity<News>(HttpStatus.OK);
 			}
 		}
 		catch (NewsNotFoundException e) {
-			logger.info("In controller - {}", "News not found for User ID - " +userId);
+			logger.info("In controller - News not found for User ID - {}", userId);
 			return new ResponseEntity<News>(HttpStatus.NOT_FOUND);
 		}
-		logger.info("In controller - {}", "News not found for User ID - " +userId);
+		logger.info("In controller - News not found for User ID - {}", userId);
 		return new ResponseEntity<News>(HttpStatus.NOT_FOUND);
 	}
 
@@ -131,6 +266,8 @@ public class NewsController {
 	 * basis on different situations: 
 	 * 1. 200(OK) - If the news updated successfully.
 	 * 2. 404(NOT FOUND) - If the news with specified newsId is not found.
+	 * 3. 409(CONFLICT) - If another news of the user already has the new URL, the 409
+	 * carries that news, and its URL in the Location header.
 	 * 
 	 * This handler method should map to the URL "/api/v1/news/{userId}/{newsId}" using 
 	 * HTTP PUT method where "userId" should be replaced by a valid userId 
@@ -143,14 +280,17 @@ public class NewsController {
 		try {
 				News newsUpdated = newsService.updateNews(news, newsId, userId);
 				if(newsUpdated != null) {
-				logger.info("In controller - {}", "News updated for User ID: "+userId+ " and news ID: " +newsId + " is: " +news);
+				logger.info("In controller - News updated for User ID: {} and news ID: {}", userId, newsId);
 				return new ResponseEntity<News>(newsUpdated, HttpStatus.OK);
 			}
 		} catch (NewsNotFoundException e) {
-			logger.info("In controller - {}", "News not found for User ID: "+userId+ " and news ID: " +newsId);
+			logger.info("In controller - News not found for User ID: {} and news ID: {}", userId, newsId);
 			return new ResponseEntity<News>(HttpStatus.NOT_FOUND);
+		} catch (NewsAlreadyExistsException e) {
+			logger.info("In controller - {}", e.getMessage());
+			return existingNews(userId, e.getExistingNewsId());
 		}
-		logger.info("In controller - {}", "News not found for User ID: "+userId+ " and news ID: " +newsId);
+		logger.info("In controller - News not found for User ID: {} and news ID: {}", userId, newsId);
 		return new ResponseEntity<News>(HttpStatus.NOT_FOUND);
 	}
 
@@ -172,14 +312,14 @@ public class NewsController {
 		try {
 			newsById = newsService.getNewsByNewsId(userId, newsId);
 			if(newsById != null) {
-				logger.info("In controller - {}", "The news for User ID: "+userId+ " and news ID: " +newsId+ " is: "+newsById);
+				logger.info("In controller - News retrieved for User ID: {} and news ID: {}", userId, newsId);
 				return new ResponseEntity<News>(newsById, HttpStatus.OK);
 			}
 		} catch (NewsNotFoundException e) {
-			logger.info("In controller - {}", "News ID "+newsId+ " not Found.");
+			logger.info("In controller - News ID {} not Found.", newsId);
 			return new ResponseEntity<News>(HttpStatus.NOT_FOUND);
 		}
-		logger.info("In controller - {}", "News ID "+newsId+ " not Found.");
+		logger.info("In controller - News ID {} not Found.", newsId);
 		return new ResponseEntity<News>(HttpStatus.NOT_FOUND);
 	}
 
@@ -197,13 +337,83 @@ public class NewsController {
 	public ResponseEntity<List<News>> getAllNewsByUserId(@PathVariable("userId") String userId){
 		List<News> allNews = newsService.getAllNewsByUserId(userId);
 		if(allNews != null) {
-			logger.info("In controller - {}", "List of all news: "+allNews);
+			logger.info("In controller - Number of news for User ID {}: {}", userId, allNews.size());
 			return new ResponseEntity<List<News>>(allNews, HttpStatus.OK);
 		}
 		else {
-			logger.info("In controller - {}", "User ID "+userId+ " not Found.");
+			logger.info("In controller - User ID {} not Found.", userId);
 			return new ResponseEntity<List<News>>(HttpStatus.NOT_FOUND);
 		}
 	}
 
+	/*
+	 * Define a handler method which will show one page of the news created by specific
+	 * user, in (publishedAt, newsId) order. "limit" is the page size and "after" is the
+	 * "next" cursor of the previous page. This handler method should return any one of
+	 * the status messages basis on different situations:
+	 * 1. 200(OK) - With the page, which is empty past the last news.
+	 * 2. 400(BAD REQUEST) - If the limit or the cursor is invalid.
+	 * This handler method should map to the URL "/api/v1/news/{userId}?limit={limit}&after={cursor}"
+	 * using HTTP GET method.
+	 * 
+	 */
+	@GetMapping(value = "/{userId}", params = "limit")
+	public ResponseEntity<NewsPage> getNewsPageByUserId(@PathVariable("userId") String userId,
+			@RequestParam("limit") int limit, @RequestParam(value = "after", required = false) String after){
+		try {
+			NewsPage newsPage = newsService.getNewsPageByUserId(userId, after, limit);
+			logger.info("In controller - Number of news in page for User ID {}: {}", userId, newsPage.getNews().size());
+			return new ResponseEntity<NewsPage>(newsPage, HttpStatus.OK);
+		}
+		catch(IllegalArgumentException e) {
+			logger.info("In controller - {}", e.getMessage());
+			return new ResponseEntity<NewsPage>(HttpStatus.BAD_REQUEST);
+		}
+	}
+
+	/*
+	 * Define a handler method which will search the news created by specific user, and
+	 * return the news whose title, description or content contain every word of "q".
+	 * This handler method should return any one of the status messages basis on
+	 * different situations:
+	 * 1. 200(OK) - With the matching news, which is empty when none matches.
+	 * 2. 400(BAD REQUEST) - If the query has no word to search.
+	 * This handler method should map to the URL "/api/v1/news/{userId}/search?q={query}"
+	 * using HTTP GET method.
+	 * 
+	 */
+	@GetMapping("/{userId}/search")
+	public ResponseEntity<List<News>> searchNews(@PathVariable("userId") String userId, @RequestParam("q") String query){
+		try {
+			List<News> matchingNews = newsService.searchNews(userId, query);
+			logger.info("In controller - Number of news matching the search for User ID {}: {}", userId, matchingNews.size());
+			return new ResponseEntity<List<News>>(matchingNews, HttpStatus.OK);
+		}
+		catch(IllegalArgumentException e) {
+			logger.info("In controller - {}", e.getMessage());
+			return new ResponseEntity<List<News>>(HttpStatus.BAD_REQUEST);
+		}
+	}
+
+	/*
+	 * Define a handler method which will stream all news created by specific user as
+	 * newline delimited JSON, one news per line, written while they are read from the
+	 * database cursor so the whole list is never held in memory.
+	 * This handler method should map to the URL "/api/v1/news/{userId}/stream" using HTTP GET method.
+	 * 
+	 */
+	@GetMapping(value = "/{userId}/stream", produces = APPLICATION_NDJSON)
+	public ResponseEntity<StreamingResponseBody> streamAllNewsByUserId(@PathVariable("userId") String userId){
+		StreamingResponseBody body = outputStream -> {
+			try (Stream<News> allNews = newsService.streamAllNewsByUserId(userId)) {
+				for (News news : (Iterable<News>) allNews::iterator) {
+					outputStream.write(newsWriter.writeValueAsBytes(news));
+					outputStream.write('\n');
+				}
+			}
+		};
+		logger.info("In controller - Streaming news for User ID: {}", userId);
+		return new ResponseEntity<StreamingResponseBody>(body, HttpStatus.OK);
+	}
+
 }
@@ -0,0 +1,73 @@
+package com.stackroute.newz.dedup;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Bloom filter of strings sized for expectedInsertions at the given false positive
+ * rate. mightContain never answers false for a string that was put, and answers true for
+ * a string that was not with about the false positive rate. The bit positions come from
+ * the two halves of a 64 bit hash of the UTF-8 bytes of the string.
+ */
+public class BloomFilter {
+
+	private final long[] bits;
+	private final long bitCount;
+	private final int hashCount;
+
+	public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+		if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("The expected insertions should be positive and the false positive"
+					+ " rate between 0 and 1.");
+		}
+		long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.bits = new long[(int) ((Math.max(optimalBits, 64) + 63) / 64)];
+		this.bitCount = bits.length * 64L;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+	}
+
+	public synchronized void put(String value) {
+		long hash = hash(value);
+		int first = (int) hash;
+		int second = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			long index = Integer.toUnsignedLong(first + i * second) % bitCount;
+			bits[(int) (index >>> 6)] |= 1L << index;
+		}
+	}
+
+	public synchronized boolean mightContain(String value) {
+		long hash = hash(value);
+		int first = (int) hash;
+		int second = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			long index = Integer.toUnsignedLong(first + i * second) % bitCount;
+			if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public long bitCount() {
+		return bitCount;
+	}
+
+	public int hashCount() {
+		return hashCount;
+	}
+
+	/* FNV-1a over the bytes, finished with the MurmurHash3 64 bit mix. */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,193 @@
+package com.stackroute.newz.dedup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsUrl;
+import com.stackroute.newz.repository.NewsUrlRepository;
+
+/*
+ * Keeps the canonical URLs of the news unique per user. The claims are NewsUrl documents
+ * behind a unique (userId, url) index, which is the exact check. In front of it every
+ * recently active user has a Bloom filter of its claimed URLs: a URL the filter has never
+ * seen is claimed with a single insert, only a URL it might have seen is looked up first
+ * to report the newsId holding it. A filter is built from the claims of the user on its
+ * first use, and bounded in number of users like the search indexes.
+ *
+ * A claim is written before its news, so a news that is never stored can leave its claim
+ * behind. A claim older than CLAIM_GRACE_MILLIS whose news does not exist is dropped when
+ * its URL is claimed again, newsExists tells whether the news of a user exists.
+ */
+public class NewsUrlRegistry {
+
+	public static final long CLAIM_GRACE_MILLIS = 60000;
+
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+	private final NewsUrlRepository newsUrlRepository;
+	private final BiPredicate<String, Integer> newsExists;
+	private final Cache<String, BloomFilter> filters;
+	private final int expectedUrlsPerUser;
+	private final double falsePositiveRate;
+
+	public NewsUrlRegistry(NewsUrlRepository newsUrlRepository, BiPredicate<String, Integer> newsExists,
+			long maxUsers, long idleMinutes, int expectedUrlsPerUser, double falsePositiveRate) {
+		this.newsUrlRepository = newsUrlRepository;
+		this.newsExists = newsExists;
+		this.filters = Caffeine.newBuilder()
+				.maximumSize(maxUsers)
+				.expireAfterAccess(idleMinutes, TimeUnit.MINUTES)
+				.build();
+		this.expectedUrlsPerUser = expectedUrlsPerUser;
+		this.falsePositiveRate = falsePositiveRate;
+	}
+
+	/*
+	 * Claims the URL of the news for its author. Returns null once claimed, or when the
+	 * news has no URL, and the newsId of the news already holding the URL otherwise.
+	 */
+	public Integer claim(News news) {
+		String url = UrlCanonicalizer.canonicalize(news.getUrl());
+		if (url == null) {
+			return null;
+		}
+		String userId = news.getAuthor();
+		BloomFilter filter = filter(userId);
+		Integer holderNewsId = filter.mightContain(url) ? holder(userId, url) : null;
+		if (holderNewsId != null) {
+			return holderNewsId;
+		}
+		try {
+			newsUrlRepository.insert(new NewsUrl(userId, url, news.getNewsId()));
+		} catch (DuplicateKeyException ex) {
+			/* Claimed concurrently since the filter was checked. */
+			return newsUrlRepository.findByUserIdAndUrl(userId, url).map(NewsUrl::getNewsId).orElseThrow(() -> ex);
+		}
+		filter.put(url);
+		return null;
+	}
+
+	/*
+	 * Claims the URLs of all the news with one bulk insert. Returns the Mongo error code
+	 * by position of each news whose URL could not be claimed, the duplicate key code when
+	 * the URL is already held. The news without URL are not claimed and never fail.
+	 */
+	public Map<Integer, Integer> claimAll(List<News> newsList) {
+		List<Integer> positions = new ArrayList<>();
+		List<NewsUrl> newsUrls = new ArrayList<>();
+		for (int i = 0; i < newsList.size(); i++) {
+			News news = newsList.get(i);
+			String url = UrlCanonicalizer.canonicalize(news.getUrl());
+			if (url != null) {
+				positions.add(i);
+				newsUrls.add(new NewsUrl(news.getAuthor(), url, news.getNewsId()));
+			}
+		}
+		Map<Integer, Integer> failedUrls = newsUrlRepository.insertUrls(newsUrls);
+		Map<Integer, Integer> failedPositions = new HashMap<>();
+		for (int i = 0; i < newsUrls.size(); i++) {
+			Integer code = failedUrls.get(i);
+			if (code != null) {
+				failedPositions.put(positions.get(i), code);
+			}
+			else {
+				NewsUrl newsUrl = newsUrls.get(i);
+				BloomFilter filter = filters.getIfPresent(newsUrl.getUserId());
+				if (filter != null) {
+					filter.put(newsUrl.getUrl());
+				}
+			}
+		}
+		return failedPositions;
+	}
+
+	/* Gives up the claim of a news that could not be stored after all. */
+	public void release(News news) {
+		String url = UrlCanonicalizer.canonicalize(news.getUrl());
+		if (url != null) {
+			newsUrlRepository.deleteByUserIdAndUrlAndNewsId(news.getAuthor(), url, news.getNewsId());
+		}
+	}
+
+	/*
+	 * Points the claim of the news newsId to the URL it is being updated to, before the
+	 * update is stored. Returns null once claimed, or when the URL is removed, and the
+	 * newsId of the other news of the user holding the URL otherwise, the claim of the
+	 * news is then left as it was.
+	 */
+	public Integer reclaim(String userId, int newsId, String newUrl) {
+		String url = UrlCanonicalizer.canonicalize(newUrl);
+		if (url == null) {
+			newsUrlRepository.deleteByUserIdAndNewsId(userId, newsId);
+			return null;
+		}
+		BloomFilter filter = filter(userId);
+		Integer holderNewsId = filter.mightContain(url) ? holder(userId, url) : null;
+		if (holderNewsId != null && holderNewsId != newsId) {
+			return holderNewsId;
+		}
+		try {
+			newsUrlRepository.upsertUrl(userId, newsId, url);
+		} catch (DuplicateKeyException ex) {
+			/* Claimed concurrently since the filter was checked. */
+			holderNewsId = newsUrlRepository.findByUserIdAndUrl(userId, url).map(NewsUrl::getNewsId).orElseThrow(() -> ex);
+			logger.info("The URL {} of news {} of user {} is already held by news {}", url, newsId, userId,
+					holderNewsId);
+			return holderNewsId;
+		}
+		filter.put(url);
+		return null;
+	}
+
+	/* Releases the claim of a deleted news. Its filter keeps the URL, at worst one lookup. */
+	public void releaseNews(String userId, int newsId) {
+		newsUrlRepository.deleteByUserIdAndNewsId(userId, newsId);
+	}
+
+	public void releaseAll(String userId) {
+		filters.invalidate(userId);
+		newsUrlRepository.deleteByUserId(userId);
+	}
+
+	/*
+	 * Returns the newsId holding the URL, or null when there is no claim, or only the
+	 * claim of a news that was never stored, which is then dropped.
+	 */
+	private Integer holder(String userId, String url) {
+		NewsUrl existing = newsUrlRepository.findByUserIdAndUrl(userId, url).orElse(null);
+		if (existing == null) {
+			return null;
+		}
+		if (System.currentTimeMillis() - existing.getClaimedAt() < CLAIM_GRACE_MILLIS
+				|| newsExists.test(userId, existing.getNewsId())) {
+			return existing.getNewsId();
+		}
+		logger.info("Dropping the claim of URL {} of user {} left by news {} that does not exist", url, userId,
+				existing.getNewsId());
+		newsUrlRepository.deleteByUserIdAndUrlAndNewsId(userId, url, existing.getNewsId());
+		return null;
+	}
+
+	private BloomFilter filter(String userId) {
+		return filters.get(userId, this::load);
+	}
+
+	private BloomFilter load(String userId) {
+		BloomFilter filter = new BloomFilter(expectedUrlsPerUser, falsePositiveRate);
+		try (Stream<NewsUrl> newsUrls = newsUrlRepository.streamUrlsByUserId(userId)) {
+			newsUrls.forEach(newsUrl -> filter.put(newsUrl.getUrl()));
+		}
+		return filter;
+	}
+}
@@ -0,0 +1,77 @@
+package com.stackroute.newz.dedup;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/*
+ * Reduces the URL of a news to a canonical form, so that the same article reached
+ * through different spellings of its URL is recognised: the scheme and the host are lower
+ * cased, the default port, the fragment, the dot segments and the tracking parameters
+ * are dropped, and the remaining query parameters are sorted. A URL that does not parse
+ * is only trimmed.
+ */
+public final class UrlCanonicalizer {
+
+	private static final Set<String> TRACKING_PARAMETERS = new HashSet<>(Arrays.asList(
+			"fbclid", "gclid", "mc_cid", "mc_eid"));
+
+	private UrlCanonicalizer() {
+	}
+
+	/* Returns null for a missing or blank URL. */
+	public static String canonicalize(String url) {
+		if (url == null || url.trim().isEmpty()) {
+			return null;
+		}
+		String trimmed = url.trim();
+		try {
+			URI uri = new URI(trimmed).normalize();
+			if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+				return trimmed;
+			}
+			String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+			StringBuilder canonical = new StringBuilder(scheme).append("://");
+			if (uri.getRawUserInfo() != null) {
+				canonical.append(uri.getRawUserInfo()).append('@');
+			}
+			canonical.append(uri.getHost() == null ? uri.getRawAuthority() : uri.getHost().toLowerCase(Locale.ROOT));
+			if (uri.getPort() != -1 && !isDefaultPort(scheme, uri.getPort())) {
+				canonical.append(':').append(uri.getPort());
+			}
+			String path = uri.getRawPath();
+			canonical.append(path == null || path.isEmpty() ? "/" : path);
+			String query = canonicalQuery(uri.getRawQuery());
+			if (!query.isEmpty()) {
+				canonical.append('?').append(query);
+			}
+			return canonical.toString();
+		} catch (URISyntaxException ex) {
+			return trimmed;
+		}
+	}
+
+	private static boolean isDefaultPort(String scheme, int port) {
+		return ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+	}
+
+	private static String canonicalQuery(String query) {
+		if (query == null || query.isEmpty()) {
+			return "";
+		}
+		List<String> parameters = new ArrayList<>();
+		for (String parameter : query.split("&")) {
+			String name = parameter.split("=", 2)[0].toLowerCase(Locale.ROOT);
+			if (!parameter.isEmpty() && !name.startsWith("utm_") && !TRACKING_PARAMETERS.contains(name)) {
+				parameters.add(parameter);
+			}
+		}
+		parameters.sort(null);
+		return String.join("&", parameters);
+	}
+}
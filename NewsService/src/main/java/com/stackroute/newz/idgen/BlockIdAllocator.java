@@ -0,0 +1,73 @@
+package com.stackroute.newz.idgen;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.stackroute.newz.repository.IdCounterRepository;
+
+/*
+ * Hands out the ids of a sequence without a database round-trip per id (hi/lo). The ids
+ * are leased from the IdCounter of the sequence a block of blockSize at a time, then
+ * taken from the block with an AtomicLong. Only the thread finding the block exhausted
+ * leases the next one, so the ids are unique across threads and instances. The ids left
+ * in the block of a stopped instance are never used.
+ *
+ * The ids stored before the sequence was allocated here must not be handed out again, so
+ * the counter is seeded with the highest id in use once at startup, before any lease.
+ */
+public class BlockIdAllocator {
+
+	private final IdCounterRepository idCounterRepository;
+	private final String sequence;
+	private final int blockSize;
+	private volatile Block block;
+
+	public BlockIdAllocator(IdCounterRepository idCounterRepository, String sequence, int blockSize) {
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("The block size should be positive.");
+		}
+		this.idCounterRepository = idCounterRepository;
+		this.sequence = sequence;
+		this.blockSize = blockSize;
+	}
+
+	/* Raises the counter of the sequence to at least maxUsedId with an atomic $max. */
+	public void seed(long maxUsedId) {
+		idCounterRepository.raiseTo(sequence, maxUsedId);
+	}
+
+	public int nextId() {
+		while (true) {
+			Block current = block;
+			if (current != null) {
+				long id = current.next.getAndIncrement();
+				if (id <= current.last) {
+					return toInt(id);
+				}
+			}
+			synchronized (this) {
+				if (block == current) {
+					long last = idCounterRepository.leaseBlock(sequence, blockSize);
+					block = new Block(last - blockSize + 1, last);
+				}
+			}
+		}
+	}
+
+	private int toInt(long id) {
+		if (id > Integer.MAX_VALUE) {
+			throw new IllegalStateException("The ids of the sequence " + sequence + " are exhausted.");
+		}
+		return (int) id;
+	}
+
+	private static final class Block {
+
+		private final AtomicLong next;
+		private final long last;
+
+		private Block(long first, long last) {
+			this.next = new AtomicLong(first);
+			this.last = last;
+		}
+	}
+}
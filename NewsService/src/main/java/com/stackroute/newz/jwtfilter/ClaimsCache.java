@@ -0,0 +1,106 @@
+package com.stackroute.newz.jwtfilter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import io.jsonwebtoken.Claims;
+
+/*
+ * Bounded LRU cache of the claims of already verified JWT tokens, so a token sent again
+ * is not parsed and its signature not verified again. Entries are keyed by the SHA-256
+ * of the token, so bearer tokens are not kept in memory, and are dropped once the
+ * token expires. Tokens without expiration are kept for maxTtlMillis at most.
+ */
+public class ClaimsCache {
+
+	public static final int DEFAULT_MAX_SIZE = 10000;
+	public static final long DEFAULT_MAX_TTL_MILLIS = 300000;
+
+	private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
+	private final Map<ByteBuffer, Entry> entries;
+	private final long maxTtlMillis;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public ClaimsCache() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_MAX_TTL_MILLIS);
+	}
+
+	public ClaimsCache(int maxSize, long maxTtlMillis) {
+		this.maxTtlMillis = maxTtlMillis;
+		this.entries = new LinkedHashMap<ByteBuffer, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Entry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/*
+	 * Returns the cached claims of the token, or parses the token with the given parser
+	 * and caches the result. The parser is expected to verify the token and to throw
+	 * when it is invalid, in which case nothing is cached.
+	 */
+	public Claims get(String token, Function<String, Claims> parser) {
+		ByteBuffer key = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+		long now = System.currentTimeMillis();
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				if (now < entry.expiresAt) {
+					hits.incrementAndGet();
+					return entry.claims;
+				}
+				entries.remove(key);
+			}
+		}
+		misses.incrementAndGet();
+		Claims claims = parser.apply(token);
+		Date expiration = claims.getExpiration();
+		long expiresAt = Math.min(now + maxTtlMillis, expiration == null ? Long.MAX_VALUE : expiration.getTime());
+		synchronized (entries) {
+			entries.put(key, new Entry(claims, expiresAt));
+		}
+		return claims;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private static final class Entry {
+		private final Claims claims;
+		private final long expiresAt;
+
+		private Entry(Claims claims, long expiresAt) {
+			this.claims = claims;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.stackroute.newz.migration;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsArticle;
+import com.stackroute.newz.model.UserNews;
+
+/*
+ * One-shot migration of the embedded UserNews documents into the per-article
+ * NewsArticle collection. It runs once at startup when "newz.news.migrate" is true.
+ * The UserNews documents are streamed one at a time and every news is upserted on
+ * (userId, newsId), so the migration can be re-run safely after a partial run.
+ * The UserNews documents are left in place.
+ */
+@Component
+@ConditionalOnProperty(name = "newz.news.migrate", havingValue = "true")
+public class NewsStorageMigrator implements ApplicationRunner {
+
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	public NewsStorageMigrator(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		mongoTemplate.indexOps(NewsArticle.class).ensureIndex(new Index()
+				.on("userId", Direction.ASC)
+				.on("newsId", Direction.ASC)
+				.unique().named("userId_newsId"));
+		long users = 0;
+		long articles = 0;
+		try (CloseableIterator<UserNews> userNewsIterator = mongoTemplate.stream(new Query(), UserNews.class)) {
+			while (userNewsIterator.hasNext()) {
+				UserNews userNews = userNewsIterator.next();
+				articles += migrate(userNews);
+				users++;
+			}
+		}
+		logger.info("Migrated {} news of {} users into the newsArticle collection", articles, users);
+	}
+
+	/* Writes all news of one user with a single unordered bulk upsert. */
+	int migrate(UserNews userNews) {
+		List<News> newsList = userNews.getNewslist();
+		if (newsList == null || newsList.isEmpty()) {
+			return 0;
+		}
+		BulkOperations bulkOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, NewsArticle.class);
+		for (News news : newsList) {
+			Query query = new Query(Criteria.where("userId").is(userNews.getUserId()).and("newsId").is(news.getNewsId()));
+			bulkOps.upsert(query, new Update().set("news", news));
+		}
+		bulkOps.execute();
+		return newsList.size();
+	}
+}
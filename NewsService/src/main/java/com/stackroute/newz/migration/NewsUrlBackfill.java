@@ -0,0 +1,114 @@
+package com.stackroute.newz.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import com.stackroute.newz.dedup.UrlCanonicalizer;
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsArticle;
+import com.stackroute.newz.model.NewsUrl;
+import com.stackroute.newz.model.UserNews;
+import com.stackroute.newz.repository.NewsUrlRepository;
+
+/*
+ * One-shot backfill of the NewsUrl claims of the news stored before URLs were kept
+ * unique. It runs once at startup when "newz.news.dedup.backfill" is true, and streams
+ * the news of the configured storage layout, claiming their canonical URLs with
+ * unordered bulk inserts of BATCH_SIZE claims. A URL already claimed is skipped, so the
+ * backfill can be re-run safely; of several stored news of a user sharing a URL, only
+ * the first one claims it.
+ */
+@Component
+@ConditionalOnProperty(name = "newz.news.dedup.backfill", havingValue = "true")
+public class NewsUrlBackfill implements ApplicationRunner {
+
+	private static final int BATCH_SIZE = 1000;
+	private static final int DUPLICATE_KEY = 11000;
+
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	private MongoTemplate mongoTemplate;
+	private NewsUrlRepository newsUrlRepository;
+	private boolean articleStorage;
+
+	private final List<NewsUrl> batch = new ArrayList<>(BATCH_SIZE);
+	private long claimed;
+	private long alreadyClaimed;
+	private long failed;
+
+	@Autowired
+	public NewsUrlBackfill(MongoTemplate mongoTemplate, NewsUrlRepository newsUrlRepository,
+			@Value("${newz.news.storage:embedded}") String storage) {
+		this.mongoTemplate = mongoTemplate;
+		this.newsUrlRepository = newsUrlRepository;
+		this.articleStorage = "article".equalsIgnoreCase(storage);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		mongoTemplate.indexOps(NewsUrl.class).ensureIndex(new Index()
+				.on("userId", Direction.ASC)
+				.on("url", Direction.ASC)
+				.unique().named("userId_url"));
+		if (articleStorage) {
+			try (CloseableIterator<NewsArticle> articles = mongoTemplate.stream(new Query(), NewsArticle.class)) {
+				while (articles.hasNext()) {
+					NewsArticle article = articles.next();
+					add(article.getUserId(), article.getNews());
+				}
+			}
+		}
+		else {
+			try (CloseableIterator<UserNews> userNewsIterator = mongoTemplate.stream(new Query(), UserNews.class)) {
+				while (userNewsIterator.hasNext()) {
+					UserNews userNews = userNewsIterator.next();
+					if (userNews.getNewslist() != null) {
+						userNews.getNewslist().forEach(news -> add(userNews.getUserId(), news));
+					}
+				}
+			}
+		}
+		flush();
+		logger.info("Backfilled {} news URLs, {} were already claimed and {} failed", claimed, alreadyClaimed, failed);
+	}
+
+	private void add(String userId, News news) {
+		String url = news == null ? null : UrlCanonicalizer.canonicalize(news.getUrl());
+		if (url == null || news.getNewsId() == null) {
+			return;
+		}
+		batch.add(new NewsUrl(userId, url, news.getNewsId()));
+		if (batch.size() == BATCH_SIZE) {
+			flush();
+		}
+	}
+
+	private void flush() {
+		Map<Integer, Integer> failedUrls = newsUrlRepository.insertUrls(batch);
+		for (int code : failedUrls.values()) {
+			if (code == DUPLICATE_KEY) {
+				alreadyClaimed++;
+			}
+			else {
+				failed++;
+			}
+		}
+		claimed += batch.size() - failedUrls.size();
+		batch.clear();
+	}
+}
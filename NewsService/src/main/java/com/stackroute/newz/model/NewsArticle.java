@@ -0,0 +1,80 @@
+package com.stackroute.newz.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/*
+ * Please note that this class is annotated with @Document annotation
+ * @Document identifies a domain object to be persisted to MongoDB.
+ *
+ * NewsArticle is the per-article layout of the news of a user. Instead of all news
+ * living inside the single newslist of a UserNews document, every News is stored as
+ * its own document, looked up through the compound (userId, newsId) index. Pages of
+ * news are read in (publishedAt, newsId) order through the second index, and the due
+ * reminders through the third one. The last one gives the highest newsId stored.
+ */
+@Document(collection = "newsArticle")
+@CompoundIndexes({
+	@CompoundIndex(name = "userId_newsId", def = "{'userId' : 1, 'newsId' : 1}", unique = true),
+	@CompoundIndex(name = "userId_publishedAt_newsId", def = "{'userId' : 1, 'news.publishedAt' : 1, 'newsId' : 1}"),
+	@CompoundIndex(name = "news_reminder_schedule", def = "{'news.reminder.schedule' : 1}"),
+	@CompoundIndex(name = "newsId", def = "{'newsId' : -1}")
+})
+public class NewsArticle {
+
+	@Id
+	private String id;
+	private String userId;
+	private Integer newsId;
+	private News news;
+
+	public NewsArticle() {
+		super();
+	}
+
+	public NewsArticle(String userId, News news) {
+		super();
+		this.userId = userId;
+		this.newsId = news.getNewsId();
+		this.news = news;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public Integer getNewsId() {
+		return newsId;
+	}
+
+	public void setNewsId(Integer newsId) {
+		this.newsId = newsId;
+	}
+
+	public News getNews() {
+		return news;
+	}
+
+	public void setNews(News news) {
+		this.news = news;
+	}
+
+	@Override
+	public String toString() {
+		return "NewsArticle [id=" + id + ", userId=" + userId + ", newsId=" + newsId + ", news=" + news + "]";
+	}
+}
@@ -0,0 +1,68 @@
+package com.stackroute.newz.model;
+
+/*
+ * NewsIngestStatus is the outcome of one news of a batch ingestion. The index is the
+ * position of the news in the request body. MALFORMED marks the line of a news stream
+ * that could not be read, the ingestion stops there.
+ */
+public class NewsIngestStatus {
+
+	public enum Status {
+		CREATED, CONFLICT, INVALID, FAILED, MALFORMED
+	}
+
+	private int index;
+	private Integer newsId;
+	private String author;
+	private Status status;
+
+	public NewsIngestStatus() {
+		super();
+	}
+
+	public NewsIngestStatus(int index, News news, Status status) {
+		super();
+		this.index = index;
+		this.newsId = news == null ? null : news.getNewsId();
+		this.author = news == null ? null : news.getAuthor();
+		this.status = status;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	public Integer getNewsId() {
+		return newsId;
+	}
+
+	public void setNewsId(Integer newsId) {
+		this.newsId = newsId;
+	}
+
+	public String getAuthor() {
+		return author;
+	}
+
+	public void setAuthor(String author) {
+		this.author = author;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	@Override
+	public String toString() {
+		return "NewsIngestStatus [index=" + index + ", newsId=" + newsId + ", author=" + author + ", status="
+				+ status + "]";
+	}
+}
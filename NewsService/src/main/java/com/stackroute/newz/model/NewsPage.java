@@ -0,0 +1,72 @@
+package com.stackroute.newz.model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/*
+ * NewsPage is one page of the news of a user, ordered by (publishedAt, newsId).
+ * The next field holds the cursor to pass as "after" to read the following page,
+ * it is null on the last page.
+ */
+public class NewsPage {
+
+	private List<News> news;
+	private String next;
+
+	public NewsPage() {
+		super();
+	}
+
+	public NewsPage(List<News> news, String next) {
+		super();
+		this.news = news;
+		this.next = next;
+	}
+
+	public List<News> getNews() {
+		return news;
+	}
+
+	public void setNews(List<News> news) {
+		this.news = news;
+	}
+
+	public String getNext() {
+		return next;
+	}
+
+	public void setNext(String next) {
+		this.next = next;
+	}
+
+	/* The cursor of a news is its publishedAt and newsId, as "2020-01-31T10:15:30.123_42". */
+	public static String cursorOf(News news) {
+		return news.getPublishedAt() + "_" + news.getNewsId();
+	}
+
+	public static LocalDateTime cursorPublishedAt(String cursor) {
+		try {
+			return LocalDateTime.parse(cursor.substring(0, separatorOf(cursor)));
+		} catch (DateTimeParseException ex) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+		}
+	}
+
+	public static Integer cursorNewsId(String cursor) {
+		return Integer.valueOf(cursor.substring(separatorOf(cursor) + 1));
+	}
+
+	private static int separatorOf(String cursor) {
+		int separator = cursor.lastIndexOf('_');
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor);
+		}
+		return separator;
+	}
+
+	@Override
+	public String toString() {
+		return "NewsPage [news=" + news + ", next=" + next + "]";
+	}
+}
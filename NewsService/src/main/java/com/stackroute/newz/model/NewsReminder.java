@@ -0,0 +1,54 @@
+package com.stackroute.newz.model;
+
+import java.time.LocalDateTime;
+
+/*
+ * The reminder of one news of a user, as read from the reminder.schedule of the news
+ * and dispatched by the ReminderScheduler once it is due.
+ */
+public class NewsReminder {
+
+	private String userId;
+	private Integer newsId;
+	private LocalDateTime schedule;
+
+	public NewsReminder() {
+		super();
+	}
+
+	public NewsReminder(String userId, Integer newsId, LocalDateTime schedule) {
+		super();
+		this.userId = userId;
+		this.newsId = newsId;
+		this.schedule = schedule;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public Integer getNewsId() {
+		return newsId;
+	}
+
+	public void setNewsId(Integer newsId) {
+		this.newsId = newsId;
+	}
+
+	public LocalDateTime getSchedule() {
+		return schedule;
+	}
+
+	public void setSchedule(LocalDateTime schedule) {
+		this.schedule = schedule;
+	}
+
+	@Override
+	public String toString() {
+		return "NewsReminder [userId=" + userId + ", newsId=" + newsId + ", schedule=" + schedule + "]";
+	}
+}
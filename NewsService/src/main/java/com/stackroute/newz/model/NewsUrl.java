@@ -0,0 +1,85 @@
+package com.stackroute.newz.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/*
+ * Please note that this class is annotated with @Document annotation
+ * @Document identifies a domain object to be persisted to MongoDB.
+ *
+ * NewsUrl claims the canonical URL of a news for its user. The unique (userId, url)
+ * index makes the claim exact whatever the storage layout of the news, since the news
+ * of the newslist of a single UserNews document can not be kept unique by an index.
+ * claimedAt (epoch milliseconds) tells a claim whose news is still being stored from
+ * one left behind by a news that was never stored.
+ */
+@Document(collection = "newsUrl")
+@CompoundIndex(name = "userId_url", def = "{'userId' : 1, 'url' : 1}", unique = true)
+public class NewsUrl {
+
+	@Id
+	private String id;
+	private String userId;
+	private String url;
+	private Integer newsId;
+	private long claimedAt;
+
+	public NewsUrl() {
+		super();
+	}
+
+	public NewsUrl(String userId, String url, Integer newsId) {
+		super();
+		this.userId = userId;
+		this.url = url;
+		this.newsId = newsId;
+		this.claimedAt = System.currentTimeMillis();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+	public Integer getNewsId() {
+		return newsId;
+	}
+
+	public void setNewsId(Integer newsId) {
+		this.newsId = newsId;
+	}
+
+	public long getClaimedAt() {
+		return claimedAt;
+	}
+
+	public void setClaimedAt(long claimedAt) {
+		this.claimedAt = claimedAt;
+	}
+
+	@Override
+	public String toString() {
+		return "NewsUrl [id=" + id + ", userId=" + userId + ", url=" + url + ", newsId=" + newsId
+				+ ", claimedAt=" + claimedAt + "]";
+	}
+}
@@ -0,0 +1,71 @@
+package com.stackroute.newz.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/*
+ * Please note that this class is annotated with @Document annotation
+ * @Document identifies a domain object to be persisted to MongoDB.
+ *
+ * The progress of the ReminderScheduler: every reminder due before dispatchedUntil
+ * (epoch milliseconds) has been handed to the sink. The scheduler resumes from it after
+ * a restart. The cursor is also the lease of the single dispatching instance: owner
+ * dispatches the reminders until leaseUntil (epoch milliseconds), unless it renews it.
+ */
+@Document(collection = "reminderCursor")
+public class ReminderCursor {
+
+	@Id
+	private String id;
+	private long dispatchedUntil;
+	private String owner;
+	private long leaseUntil;
+
+	public ReminderCursor() {
+		super();
+	}
+
+	public ReminderCursor(String id, long dispatchedUntil) {
+		super();
+		this.id = id;
+		this.dispatchedUntil = dispatchedUntil;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public long getDispatchedUntil() {
+		return dispatchedUntil;
+	}
+
+	public void setDispatchedUntil(long dispatchedUntil) {
+		this.dispatchedUntil = dispatchedUntil;
+	}
+
+	public String getOwner() {
+		return owner;
+	}
+
+	public void setOwner(String owner) {
+		this.owner = owner;
+	}
+
+	public long getLeaseUntil() {
+		return leaseUntil;
+	}
+
+	public void setLeaseUntil(long leaseUntil) {
+		this.leaseUntil = leaseUntil;
+	}
+
+	@Override
+	public String toString() {
+		return "ReminderCursor [id=" + id + ", dispatchedUntil=" + dispatchedUntil + ", owner=" + owner
+				+ ", leaseUntil=" + leaseUntil + "]";
+	}
+}
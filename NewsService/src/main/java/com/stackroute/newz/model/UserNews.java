@@ -3,14 +3,23 @@ package com.stackroute.newz.model;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 /*
  * Please note that this class is annotated with @Document annotation
  * @Document identifies a domain object to be persisted to MongoDB.
  * 
+ * The multikey index on the reminder schedules lets the ReminderScheduler read the
+ * reminders due in a time window without scanning the newslists. The one on the newsIds
+ * gives the highest newsId stored, to seed the id counter at startup.
  */
 @Document
+@CompoundIndexes({
+	@CompoundIndex(name = "newslist_reminder_schedule", def = "{'newslist.reminder.schedule' : 1}"),
+	@CompoundIndex(name = "newslist_newsId", def = "{'newslist._id' : -1}")
+})
 public class UserNews {
 
 	/*
@@ -0,0 +1,25 @@
+package com.stackroute.newz.reminder;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.stackroute.newz.model.NewsReminder;
+
+/*
+ * Default sink writing one line per due reminder. Define another ReminderSink bean to
+ * send the reminders elsewhere.
+ */
+public class LogReminderSink implements ReminderSink {
+
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	@Override
+	public void deliver(List<NewsReminder> reminders) {
+		for (NewsReminder reminder : reminders) {
+			logger.info("reminder due userId={} newsId={} schedule={}",
+					reminder.getUserId(), reminder.getNewsId(), reminder.getSchedule());
+		}
+	}
+}
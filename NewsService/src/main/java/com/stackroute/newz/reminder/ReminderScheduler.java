@@ -0,0 +1,323 @@
+package com.stackroute.newz.reminder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsReminder;
+import com.stackroute.newz.model.ReminderCursor;
+import com.stackroute.newz.repository.ReminderCursorRepository;
+
+/*
+ * Dispatches the reminders of the news once their schedule is due. Only the reminders
+ * due within the next lookaheadMillis are held, in a TimingWheel: every tick the window
+ * is extended by an indexed range query on the reminder schedules, so the collection is
+ * never scanned. The service reports the reminders it writes, and those falling inside
+ * the loaded window are scheduled or cancelled in the wheel directly.
+ *
+ * The wheel only knows the writes of its own instance, so the database stays the source
+ * of truth: every tick, the reminders due from the last dispatched tick up to the current
+ * one are read again. Only those still stored with that schedule are delivered, so a
+ * news deleted, evicted or rescheduled through another instance is not reminded, and
+ * those the wheel does not hold are delivered from the read, so a reminder written
+ * through another instance is not lost either.
+ *
+ * The due reminders are handed to the sink in batches of batchSize. Once they are
+ * delivered, the time they were due up to is saved as the cursor, and a restart loads
+ * the reminders again from that cursor, so those missed while the service was down are
+ * dispatched right away.
+ *
+ * Only one instance may dispatch, or every reminder would be delivered once per instance.
+ * The cursor document doubles as a lease: the instance holding it renews it once half of
+ * leaseMillis has run out, and only moves the cursor while it still holds it. The other
+ * instances keep no wheel, leave the writes of their service to the reads of the holder,
+ * and take the lease over once it expires, resuming from the cursor. leaseMillis should
+ * exceed the time a tick takes to deliver its reminders.
+ */
+public class ReminderScheduler {
+
+	public static final String CURSOR_ID = "newsReminders";
+
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+	private final BiFunction<LocalDateTime, LocalDateTime, Stream<NewsReminder>> source;
+	private final ReminderCursorRepository cursorRepository;
+	private final ReminderSink sink;
+	private final long tickMillis;
+	private final long lookaheadMillis;
+	private final int wheelSize;
+	private final int levelCount;
+	private final int batchSize;
+	private final long leaseMillis;
+	private final String owner = UUID.randomUUID().toString();
+
+	private TimingWheel<String, NewsReminder> wheel;
+	/* The reminders due before loadedUntil are in the wheel, the later ones only in the database. */
+	private long loadedUntil;
+	/* The reminders due before dispatchedUntil have been handed to the sink. */
+	private long dispatchedUntil;
+	/* The lease is held until then, the wheel is null while another instance holds it. */
+	private long leaseUntil;
+	private ScheduledExecutorService scheduler;
+
+	/*
+	 * The source streams the reminders due in [from, to), it is called from the scheduler
+	 * thread and the stream is closed after use.
+	 */
+	public ReminderScheduler(BiFunction<LocalDateTime, LocalDateTime, Stream<NewsReminder>> source,
+			ReminderCursorRepository cursorRepository, ReminderSink sink, long tickMillis, long lookaheadMillis,
+			int wheelSize, int levelCount, int batchSize, long leaseMillis) {
+		this.source = source;
+		this.cursorRepository = cursorRepository;
+		this.sink = sink;
+		this.tickMillis = tickMillis;
+		this.lookaheadMillis = Math.max(lookaheadMillis, 2 * tickMillis);
+		this.wheelSize = wheelSize;
+		this.levelCount = levelCount;
+		this.batchSize = batchSize;
+		this.leaseMillis = leaseMillis;
+	}
+
+	/* The first tick takes the lease when it is free and resumes from the cursor. */
+	public void start() {
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "news-reminder-scheduler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::tickQuietly, 0, tickMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/* Waits for the tick in progress, then hands the lease over to the other instances. */
+	public void stop() {
+		if (scheduler == null) {
+			return;
+		}
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(leaseMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (this) {
+			if (wheel == null) {
+				return;
+			}
+			wheel = null;
+		}
+		cursorRepository.releaseLease(CURSOR_ID, owner);
+	}
+
+	/* Restarts from the saved cursor, or from nowMillis on the very first start. */
+	public synchronized void resume(long nowMillis) {
+		long dispatchedUntil = cursorRepository.findById(CURSOR_ID)
+				.map(ReminderCursor::getDispatchedUntil)
+				.orElse(nowMillis);
+		loadedUntil = dispatchedUntil;
+		this.dispatchedUntil = dispatchedUntil;
+		wheel = new TimingWheel<>(tickMillis, wheelSize, levelCount, dispatchedUntil);
+		logger.info("Resuming the news reminders from {}", Instant.ofEpochMilli(dispatchedUntil));
+	}
+
+	/*
+	 * Once the lease is held, extends the loaded window when it gets shorter than half
+	 * the lookahead, then delivers the reminders due up to nowMillis that are still stored.
+	 */
+	public void tick(long nowMillis) {
+		if (!holdLease(nowMillis)) {
+			return;
+		}
+		long untilMillis = (nowMillis / tickMillis + 1) * tickMillis;
+		Map<String, NewsReminder> expired = new HashMap<>();
+		long previousUntil;
+		synchronized (this) {
+			if (wheel == null) {
+				return;
+			}
+			if (loadedUntil - nowMillis < lookaheadMillis / 2) {
+				load(nowMillis + lookaheadMillis);
+			}
+			wheel.advanceTo(nowMillis, reminder -> expired.put(key(reminder.getUserId(), reminder.getNewsId()), reminder));
+			previousUntil = dispatchedUntil;
+			dispatchedUntil = Math.max(dispatchedUntil, untilMillis);
+		}
+		List<NewsReminder> due = stillDue(expired, previousUntil, untilMillis);
+		forget(due);
+		boolean delivered = true;
+		for (int from = 0; from < due.size(); from += batchSize) {
+			List<NewsReminder> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+			try {
+				sink.deliver(batch);
+			} catch (RuntimeException ex) {
+				logger.warn("Could not deliver {} news reminders, retrying on the next tick", batch.size(), ex);
+				retry(batch);
+				delivered = false;
+			}
+		}
+		if (!due.isEmpty() && delivered) {
+			saveCursor((nowMillis / tickMillis + 1) * tickMillis);
+		}
+	}
+
+	/*
+	 * Schedules the reminder of a news written by the service, or cancels it when the
+	 * news has no reminder any more.
+	 */
+	public void schedule(String userId, News news) {
+		if (news == null || news.getNewsId() == null) {
+			return;
+		}
+		String key = key(userId, news.getNewsId());
+		LocalDateTime schedule = news.getReminder() == null ? null : news.getReminder().getSchedule();
+		synchronized (this) {
+			if (wheel == null) {
+				return;
+			}
+			wheel.cancel(key);
+			if (schedule != null && toMillis(schedule) < loadedUntil) {
+				wheel.schedule(key, new NewsReminder(userId, news.getNewsId(), schedule), toMillis(schedule));
+			}
+		}
+	}
+
+	public synchronized void cancel(String userId, int newsId) {
+		if (wheel != null) {
+			wheel.cancel(key(userId, newsId));
+		}
+	}
+
+	public synchronized void cancelAll(String userId) {
+		if (wheel != null) {
+			wheel.cancelIf(reminder -> reminder.getUserId().equals(userId));
+		}
+	}
+
+	public synchronized int size() {
+		return wheel == null ? 0 : wheel.size();
+	}
+
+	/*
+	 * Renews the lease once half of it has run out, or takes it over when it has expired,
+	 * resuming from the cursor. An instance that lost the lease drops its wheel.
+	 */
+	private boolean holdLease(long nowMillis) {
+		synchronized (this) {
+			if (wheel != null && nowMillis < leaseUntil - leaseMillis / 2) {
+				return true;
+			}
+		}
+		boolean held = cursorRepository.acquireLease(CURSOR_ID, owner, nowMillis, nowMillis + leaseMillis);
+		synchronized (this) {
+			if (!held) {
+				dropWheel();
+				return false;
+			}
+			leaseUntil = nowMillis + leaseMillis;
+			if (wheel == null) {
+				resume(nowMillis);
+			}
+			return true;
+		}
+	}
+
+	private synchronized void dropWheel() {
+		if (wheel != null) {
+			wheel = null;
+			logger.info("The news reminders are dispatched by another instance");
+		}
+	}
+
+	/*
+	 * Reads the reminders stored with a schedule from previousUntil, or from the earliest
+	 * expired one when a batch is retried, up to untilMillis. An expired reminder is only
+	 * kept when it is still stored with a schedule in that range. A reminder due from
+	 * previousUntil is delivered even if the wheel did not hold it, those due before it
+	 * were delivered already.
+	 */
+	private List<NewsReminder> stillDue(Map<String, NewsReminder> expired, long previousUntil, long untilMillis) {
+		long fromMillis = previousUntil;
+		for (NewsReminder reminder : expired.values()) {
+			fromMillis = Math.min(fromMillis, toMillis(reminder.getSchedule()));
+		}
+		List<NewsReminder> due = new ArrayList<>();
+		try (Stream<NewsReminder> reminders = source.apply(toDateTime(fromMillis), toDateTime(untilMillis))) {
+			reminders.forEach(reminder -> {
+				if (expired.containsKey(key(reminder.getUserId(), reminder.getNewsId()))
+						|| toMillis(reminder.getSchedule()) >= previousUntil) {
+					due.add(reminder);
+				}
+			});
+		}
+		return due;
+	}
+
+	private void load(long untilMillis) {
+		try (Stream<NewsReminder> reminders = source.apply(toDateTime(loadedUntil), toDateTime(untilMillis))) {
+			reminders.forEach(reminder -> wheel.schedule(key(reminder.getUserId(), reminder.getNewsId()), reminder,
+					toMillis(reminder.getSchedule())));
+		}
+		loadedUntil = untilMillis;
+	}
+
+	/*
+	 * Cancels the reminders about to be delivered that the service scheduled again while
+	 * they were read, a later schedule of theirs is still read from the database when due.
+	 */
+	private synchronized void forget(List<NewsReminder> due) {
+		if (wheel == null) {
+			return;
+		}
+		for (NewsReminder reminder : due) {
+			wheel.cancel(key(reminder.getUserId(), reminder.getNewsId()));
+		}
+	}
+
+	private synchronized void retry(List<NewsReminder> batch) {
+		if (wheel == null) {
+			return;
+		}
+		for (NewsReminder reminder : batch) {
+			String key = key(reminder.getUserId(), reminder.getNewsId());
+			wheel.schedule(key, reminder, toMillis(reminder.getSchedule()));
+		}
+	}
+
+	private void saveCursor(long untilMillis) {
+		if (!cursorRepository.saveDispatchedUntil(CURSOR_ID, owner, untilMillis)) {
+			dropWheel();
+		}
+	}
+
+	private void tickQuietly() {
+		try {
+			tick(System.currentTimeMillis());
+		} catch (RuntimeException ex) {
+			logger.warn("Could not dispatch the news reminders", ex);
+		}
+	}
+
+	private static String key(String userId, Integer newsId) {
+		return userId + "/" + newsId;
+	}
+
+	private static long toMillis(LocalDateTime dateTime) {
+		return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	private static LocalDateTime toDateTime(long millis) {
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+	}
+}
@@ -0,0 +1,14 @@
+package com.stackroute.newz.reminder;
+
+import java.util.List;
+
+import com.stackroute.newz.model.NewsReminder;
+
+/*
+ * Receives the due reminders from the ReminderScheduler, in batches, on the scheduler
+ * thread. A batch whose delivery throws is retried on the next tick.
+ */
+public interface ReminderSink {
+
+	void deliver(List<NewsReminder> reminders);
+}
@@ -0,0 +1,204 @@
+package com.stackroute.newz.reminder;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/*
+ * Hierarchical timing wheel holding values until their due time. Level 0 has one slot
+ * per tick, every upper level has one slot per full turn of the level below it, and the
+ * entries beyond the last level wait in an overflow bucket. An entry goes to the lowest
+ * level whose current turn contains its due tick, and is cascaded down one level each
+ * time the wheel reaches the start of its slot, until it expires from level 0.
+ *
+ * Scheduling and cancelling are O(1): the slots are intrusive doubly linked lists and
+ * the entries are found by key. The wheel is not thread-safe, its owner synchronizes.
+ */
+public class TimingWheel<K, V> {
+
+	private final long tickMillis;
+	private final int bits;
+	private final int mask;
+	private final int levelCount;
+	private final Bucket<K, V>[][] levels;
+	private final Bucket<K, V> overflow = new Bucket<>();
+	private final Map<K, Entry<K, V>> entries = new HashMap<>();
+
+	/* The next tick to expire, all the ticks before it have been expired already. */
+	private long currentTick;
+
+	@SuppressWarnings("unchecked")
+	public TimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+		if (tickMillis <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1 || levelCount < 1) {
+			throw new IllegalArgumentException("The tick should be positive, the wheel size a power of two and"
+					+ " the wheel should have at least one level.");
+		}
+		this.tickMillis = tickMillis;
+		this.bits = Integer.numberOfTrailingZeros(wheelSize);
+		this.mask = wheelSize - 1;
+		this.levelCount = levelCount;
+		this.levels = new Bucket[levelCount][wheelSize];
+		for (Bucket<K, V>[] level : levels) {
+			for (int slot = 0; slot < wheelSize; slot++) {
+				level[slot] = new Bucket<>();
+			}
+		}
+		this.currentTick = startMillis / tickMillis;
+	}
+
+	/*
+	 * Schedules the value, replacing the one scheduled with the same key. A value already
+	 * due expires on the next advance.
+	 */
+	public void schedule(K key, V value, long dueMillis) {
+		cancel(key);
+		Entry<K, V> entry = new Entry<>(key, value, dueMillis / tickMillis);
+		entries.put(key, entry);
+		place(entry);
+	}
+
+	public boolean cancel(K key) {
+		Entry<K, V> entry = entries.remove(key);
+		if (entry == null) {
+			return false;
+		}
+		entry.unlink();
+		return true;
+	}
+
+	public void cancelIf(Predicate<V> predicate) {
+		Iterator<Entry<K, V>> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			Entry<K, V> entry = iterator.next();
+			if (predicate.test(entry.value)) {
+				iterator.remove();
+				entry.unlink();
+			}
+		}
+	}
+
+	/*
+	 * Expires, tick by tick, every value due up to the tick of nowMillis. An empty wheel
+	 * jumps straight to the target tick.
+	 */
+	public void advanceTo(long nowMillis, Consumer<V> expired) {
+		long targetTick = nowMillis / tickMillis;
+		while (currentTick <= targetTick) {
+			if (entries.isEmpty()) {
+				currentTick = targetTick + 1;
+				return;
+			}
+			cascade();
+			Bucket<K, V> bucket = levels[0][(int) (currentTick & mask)];
+			while (!bucket.isEmpty()) {
+				Entry<K, V> entry = bucket.first();
+				entry.unlink();
+				entries.remove(entry.key);
+				expired.accept(entry.value);
+			}
+			currentTick++;
+		}
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	/*
+	 * At the start of a turn of a level, the slot of that turn on the level above is
+	 * placed again, from the highest level down, so its entries reach the lower levels.
+	 */
+	private void cascade() {
+		for (int level = levelCount; level >= 1; level--) {
+			if ((currentTick & ((1L << (bits * level)) - 1)) != 0) {
+				continue;
+			}
+			Bucket<K, V> bucket = level == levelCount
+					? overflow
+					: levels[level][(int) ((currentTick >>> (bits * level)) & mask)];
+			Bucket<K, V> cascaded = new Bucket<>();
+			cascaded.moveAll(bucket);
+			while (!cascaded.isEmpty()) {
+				Entry<K, V> entry = cascaded.first();
+				entry.unlink();
+				place(entry);
+			}
+		}
+	}
+
+	private void place(Entry<K, V> entry) {
+		long dueTick = Math.max(entry.dueTick, currentTick);
+		for (int level = 0; level < levelCount; level++) {
+			int shift = bits * (level + 1);
+			if ((dueTick >>> shift) == (currentTick >>> shift)) {
+				levels[level][(int) ((dueTick >>> (bits * level)) & mask)].add(entry);
+				return;
+			}
+		}
+		overflow.add(entry);
+	}
+
+	private static final class Entry<K, V> {
+
+		private final K key;
+		private final V value;
+		private final long dueTick;
+		private Entry<K, V> previous;
+		private Entry<K, V> next;
+
+		private Entry(K key, V value, long dueTick) {
+			this.key = key;
+			this.value = value;
+			this.dueTick = dueTick;
+		}
+
+		private void unlink() {
+			if (previous != null) {
+				previous.next = next;
+				next.previous = previous;
+				previous = null;
+				next = null;
+			}
+		}
+	}
+
+	/* Circular list of entries around a sentinel. */
+	private static final class Bucket<K, V> {
+
+		private final Entry<K, V> sentinel = new Entry<>(null, null, 0);
+
+		private Bucket() {
+			sentinel.previous = sentinel;
+			sentinel.next = sentinel;
+		}
+
+		private void add(Entry<K, V> entry) {
+			entry.previous = sentinel.previous;
+			entry.next = sentinel;
+			sentinel.previous.next = entry;
+			sentinel.previous = entry;
+		}
+
+		private boolean isEmpty() {
+			return sentinel.next == sentinel;
+		}
+
+		private Entry<K, V> first() {
+			return sentinel.next;
+		}
+
+		private void moveAll(Bucket<K, V> source) {
+			if (source.isEmpty()) {
+				return;
+			}
+			sentinel.next = source.sentinel.next;
+			sentinel.previous = source.sentinel.previous;
+			sentinel.next.previous = sentinel;
+			sentinel.previous.next = sentinel;
+			source.sentinel.next = source.sentinel;
+			source.sentinel.previous = source.sentinel;
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.stackroute.newz.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.stackroute.newz.model.IdCounter;
+
+/*
+ * MongoTemplate based implementation of IdCounterRepositoryCustom. Spring Data picks
+ * this class up as the fragment of IdCounterRepository because of its "Impl" suffix.
+ */
+public class IdCounterRepositoryImpl implements IdCounterRepositoryCustom {
+
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	public IdCounterRepositoryImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/*
+	 * Adds blockSize to the counter with one atomic $inc, creating it on the first lease,
+	 * and returns the last id of the leased block. The block is the blockSize ids up to
+	 * and including it, no other caller can lease any of them.
+	 */
+	@Override
+	public long leaseBlock(String name, int blockSize) {
+		IdCounter counter = mongoTemplate.findAndModify(new Query(Criteria.where("name").is(name)),
+				new Update().inc("value", blockSize),
+				FindAndModifyOptions.options().upsert(true).returnNew(true), IdCounter.class);
+		return counter.getValue();
+	}
+
+	/*
+	 * Raises the counter to at least value with one atomic $max, creating it when needed,
+	 * so the blocks leased afterwards start above value. A higher counter is left as is.
+	 */
+	@Override
+	public void raiseTo(String name, long value) {
+		mongoTemplate.upsert(new Query(Criteria.where("name").is(name)), new Update().max("value", value),
+				IdCounter.class);
+	}
+
+}
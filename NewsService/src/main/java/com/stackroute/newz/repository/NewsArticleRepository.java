@@ -0,0 +1,41 @@
+package com.stackroute.newz.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import com.stackroute.newz.model.NewsArticle;
+
+/*
+* This class is implementing the MongoRepository interface for NewsArticle.
+* All lookups go through the compound (userId, newsId) index of NewsArticle, so a
+* single news is read or written without touching the other news of the user.
+* */
+
+public interface NewsArticleRepository extends MongoRepository<NewsArticle, String>, NewsArticleRepositoryCustom {
+
+	Optional<NewsArticle> findByUserIdAndNewsId(String userId, Integer newsId);
+
+	boolean existsByUserIdAndNewsId(String userId, Integer newsId);
+
+	Optional<NewsArticle> findTopByOrderByNewsIdDesc();
+
+	List<NewsArticle> findByUserId(String userId);
+
+	List<NewsArticle> findByUserId(String userId, Pageable pageable);
+
+	@Query("{ 'userId' : ?0, $or : [ { 'news.publishedAt' : { $gt : ?1 } }, { 'news.publishedAt' : ?1, 'newsId' : { $gt : ?2 } } ] }")
+	List<NewsArticle> findByUserIdAfter(String userId, LocalDateTime publishedAt, Integer newsId, Pageable pageable);
+
+	Stream<NewsArticle> streamByUserId(String userId);
+
+	long deleteByUserIdAndNewsId(String userId, Integer newsId);
+
+	long deleteByUserId(String userId);
+
+}
@@ -0,0 +1,24 @@
+package com.stackroute.newz.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsArticle;
+import com.stackroute.newz.model.NewsReminder;
+
+/*
+ * Custom operations of NewsArticleRepository, implemented in NewsArticleRepositoryImpl
+ * with MongoTemplate.
+ */
+public interface NewsArticleRepositoryCustom {
+
+	Map<Integer, Integer> insertArticles(List<NewsArticle> articles);
+
+	NewsArticle updateArticle(String userId, int newsId, News news);
+
+	Stream<NewsReminder> streamRemindersDueBetween(LocalDateTime from, LocalDateTime to);
+
+}
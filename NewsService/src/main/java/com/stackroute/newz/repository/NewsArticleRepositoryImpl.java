@@ -0,0 +1,97 @@
+package com.stackroute.newz.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.StreamUtils;
+
+import com.mongodb.BulkWriteError;
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsArticle;
+import com.stackroute.newz.model.NewsReminder;
+
+/*
+ * MongoTemplate based implementation of NewsArticleRepositoryCustom. Spring Data picks
+ * this class up as the fragment of NewsArticleRepository because of its "Impl" suffix.
+ */
+public class NewsArticleRepositoryImpl implements NewsArticleRepositoryCustom {
+
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	public NewsArticleRepositoryImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/*
+	 * Inserts all articles with one unordered bulk write, so one failing article does not
+	 * stop the others. Returns the Mongo error code by position of each failed article;
+	 * a duplicate (userId, newsId) fails with the duplicate key code.
+	 */
+	@Override
+	public Map<Integer, Integer> insertArticles(List<NewsArticle> articles) {
+		Map<Integer, Integer> failedIndexes = new HashMap<>();
+		if (articles.isEmpty()) {
+			return failedIndexes;
+		}
+		try {
+			mongoTemplate.bulkOps(BulkMode.UNORDERED, NewsArticle.class).insert(articles).execute();
+		} catch (BulkOperationException ex) {
+			for (BulkWriteError error : ex.getErrors()) {
+				failedIndexes.put(error.getIndex(), error.getCode());
+			}
+		}
+		return failedIndexes;
+	}
+
+	/*
+	 * Sets the fields of the news of the article matching (userId, newsId) with a single
+	 * findAndModify and returns the updated article, or null when there is none. The
+	 * author stays the user the article is stored under.
+	 */
+	@Override
+	public NewsArticle updateArticle(String userId, int newsId, News news) {
+		Query query = new Query(Criteria.where("userId").is(userId).and("newsId").is(newsId));
+		Update update = new Update()
+				.set("news.content", news.getContent())
+				.set("news.description", news.getDescription())
+				.set("news.title", news.getTitle())
+				.set("news.url", news.getUrl())
+				.set("news.urlToImage", news.getUrlToImage())
+				.set("news.reminder", news.getReminder());
+		return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+				NewsArticle.class);
+	}
+
+	/*
+	 * Streams the reminders of all users due in [from, to) through the index on the
+	 * reminder schedules. The returned stream holds the cursor open and has to be closed.
+	 */
+	@Override
+	public Stream<NewsReminder> streamRemindersDueBetween(LocalDateTime from, LocalDateTime to) {
+		Aggregation aggregation = Aggregation.newAggregation(
+				Aggregation.match(Criteria.where("news.reminder.schedule")
+						.gte(Date.from(from.atZone(ZoneId.systemDefault()).toInstant()))
+						.lt(Date.from(to.atZone(ZoneId.systemDefault()).toInstant()))),
+				Aggregation.project("userId", "newsId")
+						.and("news.reminder.schedule").as("schedule")
+						.andExclude("_id"));
+		return StreamUtils.createStreamFromIterator(mongoTemplate.aggregateStream(aggregation,
+				mongoTemplate.getCollectionName(NewsArticle.class), NewsReminder.class));
+	}
+
+}
@@ -7,8 +7,9 @@ import com.stackroute.newz.model.UserNews;
 /*
 * This class is implementing the MongoRepository interface for Note.
 * Annotate this class with @Repository annotation
+* Single news operations come from NewsRepositoryCustom.
 * */
 
-public interface NewsRepository extends MongoRepository<UserNews, String> {
+public interface NewsRepository extends MongoRepository<UserNews, String>, NewsRepositoryCustom {
 
 }
@@ -0,0 +1,48 @@
+package com.stackroute.newz.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsReminder;
+
+/*
+ * Custom operations of NewsRepository that work on a single news inside the newslist
+ * of a UserNews document. They are implemented in NewsRepositoryImpl with MongoTemplate,
+ * so each of them is one atomic round-trip instead of a read-modify-write of the
+ * whole UserNews document.
+ */
+public interface NewsRepositoryCustom {
+
+	News findNewsByNewsId(String userId, int newsId);
+
+	boolean existsNews(String userId, int newsId);
+
+	News updateNewsByNewsId(String userId, int newsId, News news);
+
+	boolean deleteNewsByNewsId(String userId, int newsId);
+
+	List<News> findNewsPage(String userId, LocalDateTime afterPublishedAt, Integer afterNewsId, int limit);
+
+	Stream<News> streamNewsByUserId(String userId);
+
+	Map<String, Set<Integer>> findNewsIdsByUserIds(Collection<String> userIds);
+
+	int findMaxNewsId();
+
+	PushResult pushNews(String userId, News news, int maxNews);
+
+	Map<String, Integer> pushNewsByUserIds(Map<String, List<News>> newsByUserId, int maxNews);
+
+	Stream<NewsReminder> streamRemindersDueBetween(LocalDateTime from, LocalDateTime to);
+
+	/* What pushNews did: appended the news, appended it and evicted older news, or nothing. */
+	enum PushResult {
+		PUSHED, PUSHED_AND_EVICTED, ALREADY_EXISTS
+	}
+
+}
@@ -0,0 +1,299 @@
+package com.stackroute.newz.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.StreamUtils;
+
+import com.mongodb.BulkWriteError;
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsReminder;
+import com.stackroute.newz.model.UserNews;
+
+/*
+ * MongoTemplate based implementation of NewsRepositoryCustom. Spring Data picks this
+ * class up as the fragment of NewsRepository because of its "Impl" suffix.
+ *
+ * Please note that the newsId of a News embedded in the newslist is stored as "_id".
+ * Queries and updates are mapped by MongoTemplate, array filters and aggregations on
+ * the collection name are not, so they use the stored field names directly.
+ */
+public class NewsRepositoryImpl implements NewsRepositoryCustom {
+
+	private static final String NEWS_LIST = "newslist";
+	private static final String ELEM = NEWS_LIST + ".$[elem].";
+	private static final String NEWS_ID = NEWS_LIST + "._id";
+	private static final String PUBLISHED_AT = NEWS_LIST + ".publishedAt";
+	private static final String REMINDER_SCHEDULE = "reminder.schedule";
+
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	public NewsRepositoryImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/*
+	 * Returns the matching news only. The positional projection makes MongoDB send back
+	 * a single element of the newslist, whatever the number of news of the user.
+	 */
+	@Override
+	public News findNewsByNewsId(String userId, int newsId) {
+		return firstNews(mongoTemplate.findOne(newsQuery(userId, newsId), UserNews.class));
+	}
+
+	/* Checks the newslist of the user for the news without reading it. */
+	@Override
+	public boolean existsNews(String userId, int newsId) {
+		Query query = new Query(Criteria.where("userId").is(userId).and(NEWS_LIST + ".newsId").is(newsId));
+		return mongoTemplate.exists(query, UserNews.class);
+	}
+
+	/*
+	 * Sets the editable fields of the matching news with $set on newslist.$[elem] and
+	 * returns the updated news. Only the matching element is projected back.
+	 */
+	@Override
+	public News updateNewsByNewsId(String userId, int newsId, News news) {
+		Update update = new Update()
+				.set(ELEM + "author", news.getAuthor())
+				.set(ELEM + "content", news.getContent())
+				.set(ELEM + "description", news.getDescription())
+				.set(ELEM + "title", news.getTitle())
+				.set(ELEM + "url", news.getUrl())
+				.set(ELEM + "urlToImage", news.getUrlToImage())
+				.set(ELEM + "reminder", news.getReminder())
+				.filterArray(Criteria.where("elem._id").is(newsId));
+		return firstNews(mongoTemplate.findAndModify(newsQuery(userId, newsId), update,
+				FindAndModifyOptions.options().returnNew(true), UserNews.class));
+	}
+
+	/* Removes the matching news from the newslist with $pull. */
+	@Override
+	public boolean deleteNewsByNewsId(String userId, int newsId) {
+		Query query = new Query(Criteria.where("userId").is(userId));
+		Update update = new Update().pull(NEWS_LIST, Query.query(Criteria.where("newsId").is(newsId)).getQueryObject());
+		return mongoTemplate.updateFirst(query, update, UserNews.class).getModifiedCount() > 0;
+	}
+
+	/*
+	 * Returns at most limit news of the user following (afterPublishedAt, afterNewsId)
+	 * in (publishedAt, newsId) order. The newslist is unwound on the server so only the
+	 * page itself is sent back.
+	 */
+	@Override
+	public List<News> findNewsPage(String userId, LocalDateTime afterPublishedAt, Integer afterNewsId, int limit) {
+		List<AggregationOperation> operations = new ArrayList<>();
+		operations.add(Aggregation.match(Criteria.where("_id").is(userId)));
+		operations.add(Aggregation.unwind(NEWS_LIST));
+		if (afterPublishedAt != null) {
+			Date publishedAt = Date.from(afterPublishedAt.atZone(ZoneId.systemDefault()).toInstant());
+			operations.add(Aggregation.match(new Criteria().orOperator(
+					Criteria.where(PUBLISHED_AT).gt(publishedAt),
+					Criteria.where(PUBLISHED_AT).is(publishedAt).and(NEWS_ID).gt(afterNewsId))));
+		}
+		operations.add(Aggregation.sort(Sort.by(PUBLISHED_AT, NEWS_ID)));
+		operations.add(Aggregation.limit(limit));
+		operations.add(Aggregation.replaceRoot(NEWS_LIST));
+		return mongoTemplate.aggregate(Aggregation.newAggregation(operations),
+				mongoTemplate.getCollectionName(UserNews.class), News.class).getMappedResults();
+	}
+
+	/*
+	 * Streams the news of the user off a cursor, one news at a time. The returned
+	 * stream holds the cursor open and has to be closed.
+	 */
+	@Override
+	public Stream<News> streamNewsByUserId(String userId) {
+		Aggregation aggregation = Aggregation.newAggregation(
+				Aggregation.match(Criteria.where("_id").is(userId)),
+				Aggregation.unwind(NEWS_LIST),
+				Aggregation.replaceRoot(NEWS_LIST));
+		return StreamUtils.createStreamFromIterator(mongoTemplate.aggregateStream(aggregation,
+				mongoTemplate.getCollectionName(UserNews.class), News.class));
+	}
+
+	/* Returns the newsIds already stored for each of the users, reading only the ids. */
+	@Override
+	public Map<String, Set<Integer>> findNewsIdsByUserIds(Collection<String> userIds) {
+		Query query = new Query(Criteria.where("userId").in(userIds));
+		query.fields().include(NEWS_LIST + ".newsId");
+		Map<String, Set<Integer>> newsIdsByUserId = new HashMap<>();
+		for (UserNews userNews : mongoTemplate.find(query, UserNews.class)) {
+			Set<Integer> newsIds = new HashSet<>();
+			if (userNews.getNewslist() != null) {
+				for (News news : userNews.getNewslist()) {
+					newsIds.add(news.getNewsId());
+				}
+			}
+			newsIdsByUserId.put(userNews.getUserId(), newsIds);
+		}
+		return newsIdsByUserId;
+	}
+
+	/*
+	 * Returns the highest newsId of all the newslists, or 0 when there is no news. The
+	 * descending sort on the multikey newsId index finds the UserNews holding it from the
+	 * first index entry, only the newsIds of that newslist are read back.
+	 */
+	@Override
+	public int findMaxNewsId() {
+		Query query = new Query().with(Sort.by(Sort.Direction.DESC, NEWS_ID)).limit(1);
+		query.fields().include(NEWS_ID);
+		UserNews userNews = mongoTemplate.findOne(query, UserNews.class);
+		int maxNewsId = 0;
+		if (userNews != null && userNews.getNewslist() != null) {
+			for (News news : userNews.getNewslist()) {
+				if (news.getNewsId() != null) {
+					maxNewsId = Math.max(maxNewsId, news.getNewsId());
+				}
+			}
+		}
+		return maxNewsId;
+	}
+
+	/*
+	 * Appends the news to the newslist of the user with a single upsert, creating the
+	 * UserNews of a new user. The upsert only matches while the newsId is not in the
+	 * newslist, a news already there makes it fail with a duplicate key, and then
+	 * ALREADY_EXISTS is returned. See pushUpdate for maxNews.
+	 *
+	 * With a positive maxNews, the news is first pushed with an update that only matches
+	 * while the newslist has room left, so nothing is evicted. When it does not match, the
+	 * upsert pushes the news and evicts the oldest ones, reported as PUSHED_AND_EVICTED;
+	 * the first news of a new user takes this path too. Neither reads the newslist back.
+	 */
+	@Override
+	public PushResult pushNews(String userId, News news, int maxNews) {
+		Query query = new Query(Criteria.where("userId").is(userId).and(NEWS_LIST + ".newsId").ne(news.getNewsId()));
+		Update update = pushUpdate(Collections.singletonList(news), maxNews);
+		try {
+			if (maxNews <= 0) {
+				mongoTemplate.upsert(query, update, UserNews.class);
+				return PushResult.PUSHED;
+			}
+			Query withRoom = new Query(Criteria.where("userId").is(userId).and(NEWS_LIST + ".newsId").ne(news.getNewsId())
+					.and(NEWS_LIST + "." + (maxNews - 1)).exists(false));
+			if (mongoTemplate.updateFirst(withRoom, update, UserNews.class).getModifiedCount() > 0) {
+				return PushResult.PUSHED;
+			}
+			mongoTemplate.upsert(query, update, UserNews.class);
+			return PushResult.PUSHED_AND_EVICTED;
+		} catch (DuplicateKeyException ex) {
+			return PushResult.ALREADY_EXISTS;
+		}
+	}
+
+	/*
+	 * Appends the news of every user with one unordered bulk write holding one upsert
+	 * with $push $each per user. The upsert only matches while none of the pushed
+	 * newsIds is in the newslist yet, so a news added concurrently makes the upsert fail
+	 * with a duplicate key instead of storing the news twice. Returns the Mongo error
+	 * code for each user whose news could not be written.
+	 */
+	@Override
+	public Map<String, Integer> pushNewsByUserIds(Map<String, List<News>> newsByUserId, int maxNews) {
+		Map<String, Integer> failedUserIds = new HashMap<>();
+		if (newsByUserId.isEmpty()) {
+			return failedUserIds;
+		}
+		List<String> userIds = new ArrayList<>(newsByUserId.keySet());
+		BulkOperations bulkOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, UserNews.class);
+		for (String userId : userIds) {
+			List<News> newsList = newsByUserId.get(userId);
+			List<Integer> newsIds = new ArrayList<>();
+			for (News news : newsList) {
+				newsIds.add(news.getNewsId());
+			}
+			Query query = new Query(Criteria.where("userId").is(userId).and(NEWS_LIST + ".newsId").nin(newsIds));
+			bulkOps.upsert(query, pushUpdate(newsList, maxNews));
+		}
+		try {
+			bulkOps.execute();
+		} catch (BulkOperationException ex) {
+			for (BulkWriteError error : ex.getErrors()) {
+				failedUserIds.put(userIds.get(error.getIndex()), error.getCode());
+			}
+		}
+		return failedUserIds;
+	}
+
+	/*
+	 * Streams the reminders of all users due in [from, to). The first match selects the
+	 * UserNews through the index on the reminder schedules, the second one keeps only the
+	 * due news of their newslist. The returned stream holds the cursor open and has to be
+	 * closed.
+	 */
+	@Override
+	public Stream<NewsReminder> streamRemindersDueBetween(LocalDateTime from, LocalDateTime to) {
+		Date fromDate = Date.from(from.atZone(ZoneId.systemDefault()).toInstant());
+		Date toDate = Date.from(to.atZone(ZoneId.systemDefault()).toInstant());
+		Aggregation aggregation = Aggregation.newAggregation(
+				Aggregation.match(Criteria.where(NEWS_LIST).elemMatch(
+						Criteria.where(REMINDER_SCHEDULE).gte(fromDate).lt(toDate))),
+				Aggregation.unwind(NEWS_LIST),
+				Aggregation.match(Criteria.where(NEWS_LIST + "." + REMINDER_SCHEDULE).gte(fromDate).lt(toDate)),
+				Aggregation.project()
+						.and("_id").as("userId")
+						.and(NEWS_ID).as("newsId")
+						.and(NEWS_LIST + "." + REMINDER_SCHEDULE).as("schedule")
+						.andExclude("_id"));
+		return StreamUtils.createStreamFromIterator(mongoTemplate.aggregateStream(aggregation,
+				mongoTemplate.getCollectionName(UserNews.class), NewsReminder.class));
+	}
+
+	/*
+	 * $push $each of the news. With a positive maxNews the newslist is also kept sorted by
+	 * publishedAt and sliced to its last maxNews news, so the oldest news are evicted in
+	 * the same update once the user has more.
+	 */
+	private Update pushUpdate(List<News> newsList, int maxNews) {
+		Update update = new Update();
+		if (maxNews > 0) {
+			update.push(NEWS_LIST).sort(Sort.by("publishedAt")).slice(-maxNews).each(newsList.toArray());
+		}
+		else {
+			update.push(NEWS_LIST).each(newsList.toArray());
+		}
+		return update;
+	}
+
+	/* Matches the UserNews holding the news and projects only that news back. */
+	private Query newsQuery(String userId, int newsId) {
+		Query query = new Query(Criteria.where("userId").is(userId).and(NEWS_LIST + ".newsId").is(newsId));
+		query.fields().position(NEWS_LIST, 1);
+		return query;
+	}
+
+	private News firstNews(UserNews userNews) {
+		if (userNews == null) {
+			return null;
+		}
+		List<News> newsList = userNews.getNewslist();
+		return newsList == null || newsList.isEmpty() ? null : newsList.get(0);
+	}
+
+}
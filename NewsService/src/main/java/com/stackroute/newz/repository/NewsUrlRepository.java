@@ -0,0 +1,29 @@
+package com.stackroute.newz.repository;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import com.stackroute.newz.model.NewsUrl;
+
+/*
+* This class is implementing the MongoRepository interface for NewsUrl.
+* All lookups go through the unique (userId, url) index, or its userId prefix.
+* */
+
+public interface NewsUrlRepository extends MongoRepository<NewsUrl, String>, NewsUrlRepositoryCustom {
+
+	Optional<NewsUrl> findByUserIdAndUrl(String userId, String url);
+
+	@Query(value = "{ 'userId' : ?0 }", fields = "{ 'url' : 1 }")
+	Stream<NewsUrl> streamUrlsByUserId(String userId);
+
+	long deleteByUserIdAndNewsId(String userId, Integer newsId);
+
+	long deleteByUserIdAndUrlAndNewsId(String userId, String url, Integer newsId);
+
+	long deleteByUserId(String userId);
+
+}
@@ -0,0 +1,18 @@
+package com.stackroute.newz.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import com.stackroute.newz.model.NewsUrl;
+
+/*
+ * Custom operations of NewsUrlRepository, implemented in NewsUrlRepositoryImpl with
+ * MongoTemplate.
+ */
+public interface NewsUrlRepositoryCustom {
+
+	Map<Integer, Integer> insertUrls(List<NewsUrl> newsUrls);
+
+	void upsertUrl(String userId, Integer newsId, String url);
+
+}
@@ -0,0 +1,63 @@
+package com.stackroute.newz.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.BulkWriteError;
+import com.stackroute.newz.model.NewsUrl;
+
+/*
+ * MongoTemplate based implementation of NewsUrlRepositoryCustom. Spring Data picks this
+ * class up as the fragment of NewsUrlRepository because of its "Impl" suffix.
+ */
+public class NewsUrlRepositoryImpl implements NewsUrlRepositoryCustom {
+
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	public NewsUrlRepositoryImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/*
+	 * Inserts all URLs with one unordered bulk write. Returns the Mongo error code by
+	 * position of each failed URL; a URL already claimed by the user fails with the
+	 * duplicate key code.
+	 */
+	@Override
+	public Map<Integer, Integer> insertUrls(List<NewsUrl> newsUrls) {
+		Map<Integer, Integer> failedIndexes = new HashMap<>();
+		if (newsUrls.isEmpty()) {
+			return failedIndexes;
+		}
+		try {
+			mongoTemplate.bulkOps(BulkMode.UNORDERED, NewsUrl.class).insert(newsUrls).execute();
+		} catch (BulkOperationException ex) {
+			for (BulkWriteError error : ex.getErrors()) {
+				failedIndexes.put(error.getIndex(), error.getCode());
+			}
+		}
+		return failedIndexes;
+	}
+
+	/*
+	 * Points the claim of the news to its new URL in one round-trip, creating it when the
+	 * news had none. Fails with a duplicate key when another news of the user holds the URL.
+	 */
+	@Override
+	public void upsertUrl(String userId, Integer newsId, String url) {
+		Query query = new Query(Criteria.where("userId").is(userId).and("newsId").is(newsId));
+		mongoTemplate.upsert(query, new Update().set("url", url).set("claimedAt", System.currentTimeMillis()),
+				NewsUrl.class);
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.stackroute.newz.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.stackroute.newz.model.ReminderCursor;
+
+/*
+* This class is implementing the MongoRepository interface for ReminderCursor.
+* The lease and the progress of the cursor are written through ReminderCursorRepositoryCustom.
+* */
+
+public interface ReminderCursorRepository extends MongoRepository<ReminderCursor, String>,
+		ReminderCursorRepositoryCustom {
+
+}
@@ -0,0 +1,15 @@
+package com.stackroute.newz.repository;
+
+/*
+ * Custom operations of ReminderCursorRepository, implemented in
+ * ReminderCursorRepositoryImpl with MongoTemplate.
+ */
+public interface ReminderCursorRepositoryCustom {
+
+	boolean acquireLease(String id, String owner, long nowMillis, long leaseUntil);
+
+	boolean saveDispatchedUntil(String id, String owner, long dispatchedUntil);
+
+	void releaseLease(String id, String owner);
+
+}
@@ -0,0 +1,62 @@
+package com.stackroute.newz.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.stackroute.newz.model.ReminderCursor;
+
+/*
+ * MongoTemplate based implementation of ReminderCursorRepositoryCustom. Spring Data picks
+ * this class up as the fragment of ReminderCursorRepository because of its "Impl" suffix.
+ */
+public class ReminderCursorRepositoryImpl implements ReminderCursorRepositoryCustom {
+
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	public ReminderCursorRepositoryImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/*
+	 * Takes or renews the lease with one upsert, which only matches the cursor when the
+	 * owner already holds the lease, or when it is free or expired. A cursor leased to
+	 * another owner is not matched, and the insert of the upsert then fails on its _id.
+	 * A cursor created by the lease starts at nowMillis.
+	 */
+	@Override
+	public boolean acquireLease(String id, String owner, long nowMillis, long leaseUntil) {
+		Query query = new Query(Criteria.where("id").is(id).orOperator(
+				Criteria.where("owner").is(owner),
+				Criteria.where("owner").exists(false),
+				Criteria.where("leaseUntil").lt(nowMillis)));
+		Update update = new Update().set("owner", owner).set("leaseUntil", leaseUntil)
+				.setOnInsert("dispatchedUntil", nowMillis);
+		try {
+			mongoTemplate.upsert(query, update, ReminderCursor.class);
+			return true;
+		} catch (DuplicateKeyException ex) {
+			return false;
+		}
+	}
+
+	/* Moves the cursor only while the owner holds the lease, returns false otherwise. */
+	@Override
+	public boolean saveDispatchedUntil(String id, String owner, long dispatchedUntil) {
+		Query query = new Query(Criteria.where("id").is(id).and("owner").is(owner));
+		return mongoTemplate.updateFirst(query, new Update().set("dispatchedUntil", dispatchedUntil),
+				ReminderCursor.class).getMatchedCount() > 0;
+	}
+
+	/* Expires the lease of the owner, another instance can take it over on its next tick. */
+	@Override
+	public void releaseLease(String id, String owner) {
+		Query query = new Query(Criteria.where("id").is(id).and("owner").is(owner));
+		mongoTemplate.updateFirst(query, new Update().set("leaseUntil", 0L), ReminderCursor.class);
+	}
+
+}
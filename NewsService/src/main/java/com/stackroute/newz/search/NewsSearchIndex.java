@@ -0,0 +1,84 @@
+package com.stackroute.newz.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stackroute.newz.model.News;
+
+/*
+ * The inverted indexes of the news of the users who searched recently. The index of a
+ * user is built from the repository on its first search, then kept up to date by the
+ * writes of the service. The least recently searched indexes are evicted past maxUsers,
+ * and an index unused for idleMinutes, so the memory stays bounded.
+ */
+public class NewsSearchIndex {
+
+	private final Cache<String, UserNewsIndex> indexes;
+
+	public NewsSearchIndex() {
+		this(1000, 30);
+	}
+
+	public NewsSearchIndex(long maxUsers, long idleMinutes) {
+		this.indexes = Caffeine.newBuilder()
+				.maximumSize(maxUsers)
+				.expireAfterAccess(idleMinutes, TimeUnit.MINUTES)
+				.build();
+	}
+
+	/*
+	 * Returns the news of the user containing all the terms of the query, in newsId order.
+	 * The loader streams all the news of the user, it is only called to build the index.
+	 */
+	public List<News> search(String userId, String query, Function<String, Stream<News>> loader) {
+		Set<String> terms = NewsTokenizer.terms(query);
+		if (terms.isEmpty()) {
+			throw new IllegalArgumentException("The query should contain at least one word of "
+					+ NewsTokenizer.MIN_TERM_LENGTH + " characters.");
+		}
+		UserNewsIndex index = indexes.get(userId, id -> build(loader.apply(id)));
+		return index == null ? new ArrayList<>() : index.search(terms);
+	}
+
+	/*
+	 * The write methods only update the index of a user when it has been built. They go
+	 * through compute, which waits for a build of the same index in progress, so a write
+	 * the loader may have missed is applied once the index is built instead of dropped.
+	 */
+	public void add(String userId, News news) {
+		update(userId, index -> index.add(news));
+	}
+
+	public void remove(String userId, int newsId) {
+		update(userId, index -> index.remove(newsId));
+	}
+
+	/* Drops the index of the user, it is rebuilt from the repository on the next search. */
+	public void invalidate(String userId) {
+		indexes.invalidate(userId);
+	}
+
+	private void update(String userId, Consumer<UserNewsIndex> write) {
+		indexes.asMap().compute(userId, (id, index) -> {
+			if (index != null) {
+				write.accept(index);
+			}
+			return index;
+		});
+	}
+
+	private static UserNewsIndex build(Stream<News> allNews) {
+		UserNewsIndex index = new UserNewsIndex();
+		try (Stream<News> newsStream = allNews) {
+			newsStream.forEach(index::add);
+		}
+		return index;
+	}
+}
@@ -0,0 +1,51 @@
+package com.stackroute.newz.search;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.stackroute.newz.model.News;
+
+/*
+ * Splits text into lower case terms made of letters and digits. Terms shorter than
+ * MIN_TERM_LENGTH are dropped, they match too many news to be worth a posting list.
+ */
+public final class NewsTokenizer {
+
+	public static final int MIN_TERM_LENGTH = 2;
+
+	private NewsTokenizer() {
+	}
+
+	/* The distinct terms of the title, the description and the content of the news. */
+	public static Set<String> terms(News news) {
+		Set<String> terms = new LinkedHashSet<>();
+		addTerms(news.getTitle(), terms);
+		addTerms(news.getDescription(), terms);
+		addTerms(news.getContent(), terms);
+		return terms;
+	}
+
+	public static Set<String> terms(String text) {
+		Set<String> terms = new LinkedHashSet<>();
+		addTerms(text, terms);
+		return terms;
+	}
+
+	private static void addTerms(String text, Set<String> terms) {
+		if (text == null) {
+			return;
+		}
+		StringBuilder term = new StringBuilder();
+		for (int i = 0; i <= text.length(); i++) {
+			char character = i < text.length() ? text.charAt(i) : ' ';
+			if (Character.isLetterOrDigit(character)) {
+				term.append(Character.toLowerCase(character));
+			} else if (term.length() > 0) {
+				if (term.length() >= MIN_TERM_LENGTH) {
+					terms.add(term.toString());
+				}
+				term.setLength(0);
+			}
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.stackroute.newz.search;
+
+import java.util.Arrays;
+
+/*
+ * The sorted ids of the news containing a term, kept in a growable int array rather than
+ * a set of boxed integers. Membership is a binary search.
+ */
+public class PostingList {
+
+	private int[] newsIds = new int[4];
+	private int size;
+
+	public void add(int newsId) {
+		int position = Arrays.binarySearch(newsIds, 0, size, newsId);
+		if (position >= 0) {
+			return;
+		}
+		int insertion = -position - 1;
+		if (size == newsIds.length) {
+			newsIds = Arrays.copyOf(newsIds, size * 2);
+		}
+		System.arraycopy(newsIds, insertion, newsIds, insertion + 1, size - insertion);
+		newsIds[insertion] = newsId;
+		size++;
+	}
+
+	public void remove(int newsId) {
+		int position = Arrays.binarySearch(newsIds, 0, size, newsId);
+		if (position >= 0) {
+			System.arraycopy(newsIds, position + 1, newsIds, position, size - position - 1);
+			size--;
+		}
+	}
+
+	public boolean contains(int newsId) {
+		return Arrays.binarySearch(newsIds, 0, size, newsId) >= 0;
+	}
+
+	public int get(int index) {
+		return newsIds[index];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+}
@@ -0,0 +1,88 @@
+package com.stackroute.newz.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.stackroute.newz.model.News;
+
+/*
+ * Inverted index of the news of one user: the posting list of every term, the indexed
+ * news by id, and the terms of every news so that it can be removed from its posting
+ * lists when it is updated or deleted. The methods are synchronized on the index, each
+ * user has its own.
+ */
+public class UserNewsIndex {
+
+	private final Map<String, PostingList> postings = new HashMap<>();
+	private final Map<Integer, News> news = new HashMap<>();
+	private final Map<Integer, String[]> termsByNewsId = new HashMap<>();
+
+	/* Indexes the news, replacing its previous version. A news without id is not indexed. */
+	public synchronized void add(News newsToIndex) {
+		if (newsToIndex.getNewsId() == null) {
+			return;
+		}
+		int newsId = newsToIndex.getNewsId();
+		remove(newsId);
+		Set<String> terms = NewsTokenizer.terms(newsToIndex);
+		for (String term : terms) {
+			postings.computeIfAbsent(term, key -> new PostingList()).add(newsId);
+		}
+		news.put(newsId, newsToIndex);
+		termsByNewsId.put(newsId, terms.toArray(new String[0]));
+	}
+
+	public synchronized void remove(int newsId) {
+		String[] terms = termsByNewsId.remove(newsId);
+		if (terms == null) {
+			return;
+		}
+		news.remove(newsId);
+		for (String term : terms) {
+			PostingList postingList = postings.get(term);
+			postingList.remove(newsId);
+			if (postingList.isEmpty()) {
+				postings.remove(term);
+			}
+		}
+	}
+
+	/* Returns the news containing all the terms, in newsId order. */
+	public synchronized List<News> search(Collection<String> terms) {
+		List<PostingList> postingLists = new ArrayList<>(terms.size());
+		for (String term : terms) {
+			PostingList postingList = postings.get(term);
+			if (postingList == null) {
+				return new ArrayList<>();
+			}
+			postingLists.add(postingList);
+		}
+		postingLists.sort((first, second) -> Integer.compare(first.size(), second.size()));
+		PostingList shortest = postingLists.get(0);
+		List<News> matches = new ArrayList<>();
+		for (int i = 0; i < shortest.size(); i++) {
+			int newsId = shortest.get(i);
+			if (containedInAll(newsId, postingLists)) {
+				matches.add(news.get(newsId));
+			}
+		}
+		return matches;
+	}
+
+	private static boolean containedInAll(int newsId, List<PostingList> postingLists) {
+		for (int i = 1; i < postingLists.size(); i++) {
+			if (!postingLists.get(i).contains(newsId)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public synchronized int size() {
+		return news.size();
+	}
+}
@@ -1,8 +1,15 @@
 package com.stackroute.newz.service;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsIngestStatus;
+import com.stackroute.newz.model.NewsPage;
+import com.stackroute.newz.model.NewsReminder;
+import com.stackroute.newz.util.exception.NewsAlreadyExistsException;
 import com.stackroute.newz.util.exception.NewsNotFoundException;
 
 public interface NewsService {
@@ -12,16 +19,28 @@ public interface NewsService {
 	 * corresponding Impl classes
 	 */
 
-	boolean addNews(News news);
+	boolean addNews(News news) throws NewsAlreadyExistsException;
+
+	List<NewsIngestStatus> addAllNews(Iterator<News> newsIterator);
 
 	boolean deleteNews(String userId, int newsId);
 
 	boolean deleteAllNews(String userId) throws NewsNotFoundException;
 
-	News updateNews(News news, int id, String userId) throws NewsNotFoundException;
+	News updateNews(News news, int id, String userId) throws NewsNotFoundException, NewsAlreadyExistsException;
 
 	News getNewsByNewsId(String userId, int newsId) throws NewsNotFoundException;
 
+	boolean existsNews(String userId, int newsId);
+
 	List<News> getAllNewsByUserId(String userId);
 
+	NewsPage getNewsPageByUserId(String userId, String after, int limit);
+
+	Stream<News> streamAllNewsByUserId(String userId);
+
+	List<News> searchNews(String userId, String query);
+
+	Stream<NewsReminder> streamRemindersDueBetween(LocalDateTime from, LocalDateTime to);
+
 }
@@ -1,16 +1,40 @@
 package com.stackroute.newz.service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.stackroute.newz.dedup.NewsUrlRegistry;
+import com.stackroute.newz.idgen.BlockIdAllocator;
 import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsArticle;
+import com.stackroute.newz.model.NewsIngestStatus;
+import com.stackroute.newz.model.NewsIngestStatus.Status;
+import com.stackroute.newz.model.NewsPage;
+import com.stackroute.newz.model.NewsReminder;
 import com.stackroute.newz.model.UserNews;
+import com.stackroute.newz.reminder.ReminderScheduler;
+import com.stackroute.newz.repository.NewsArticleRepository;
 import com.stackroute.newz.repository.NewsRepository;
+import com.stackroute.newz.repository.NewsRepositoryCustom.PushResult;
+import com.stackroute.newz.search.NewsSearchIndex;
+import com.stackroute.newz.util.exception.NewsAlreadyExistsException;
 import com.stackroute.newz.util.exception.NewsNotFoundException;
 
 /*
@@ -31,59 +55,303 @@ public class NewsServiceImpl implements NewsService {
 	 * (Use Constructor-based autowiring) Please note that we should not create any
 	 * object using the new keyword.
 	 */
+	private static final int MAX_PAGE_SIZE = 500;
+	private static final int INGEST_BATCH_SIZE = 1000;
+	private static final int DUPLICATE_KEY = 11000;
+
 	private NewsRepository newsRepo;
+	private NewsArticleRepository newsArticleRepo;
+	
+	/*
+	 * Storage layout of the news. "embedded" keeps all news of a user in the newslist
+	 * of its UserNews document, "article" stores every news as its own NewsArticle
+	 * document keyed by (userId, newsId).
+	 */
+	private boolean articleStorage;
+	/* Most news kept in the newslist of a user, the oldest are evicted. 0 keeps them all. */
+	private int maxNewsPerUser;
+	private NewsSearchIndex newsSearchIndex = new NewsSearchIndex();
+	private ReminderScheduler reminderScheduler;
+	private NewsUrlRegistry newsUrlRegistry;
+	private BlockIdAllocator newsIdAllocator;
 	
 	public NewsServiceImpl() {
 	}
 	
-	@Autowired
 	public NewsServiceImpl(NewsRepository newsRepository) {
 		this.newsRepo = newsRepository;
 	}
+	
+	@Autowired
+	public NewsServiceImpl(NewsRepository newsRepository, NewsArticleRepository newsArticleRepository,
+			@Value("${newz.news.storage:embedded}") String storage) {
+		this.newsRepo = newsRepository;
+		this.newsArticleRepo = newsArticleRepository;
+		this.articleStorage = "article".equalsIgnoreCase(storage);
+	}
+
+	/* Replaces the default search index by the one configured with the application limits. */
+	@Autowired
+	public void setNewsSearchIndex(NewsSearchIndex newsSearchIndex) {
+		this.newsSearchIndex = newsSearchIndex;
+	}
+
+	@Value("${newz.news.max-per-user:0}")
+	public void setMaxNewsPerUser(int maxNewsPerUser) {
+		this.maxNewsPerUser = maxNewsPerUser;
+	}
+
+	/* Allocates the newsId of the news added without one, when it is set. */
+	@Autowired
+	public void setNewsIdAllocator(BlockIdAllocator newsIdAllocator) {
+		this.newsIdAllocator = newsIdAllocator;
+	}
+
+	/* Rejects the news whose canonical URL the user already has, when it is set. */
+	@Autowired
+	public void setNewsUrlRegistry(NewsUrlRegistry newsUrlRegistry) {
+		this.newsUrlRegistry = newsUrlRegistry;
+	}
+
+	/* The reminders of the news written here are reported to the scheduler, when it runs. */
+	@Autowired(required = false)
+	public void setReminderScheduler(ReminderScheduler reminderScheduler) {
+		this.reminderScheduler = reminderScheduler;
+	}
 
 	/*
-	 * This method should be used to save a new news.
+	 * This method should be used to save a new news. A news without newsId gets one from
+	 * the allocator. The URL of the news is claimed first, a news whose URL the author
+	 * already has is rejected with the newsId holding it. In the embedded layout the news
+	 * is appended to the newslist of the author with a single upsert.
 	 */
 	@Override
-	public boolean addNews(News news){
-		Boolean isExistsUserNews = newsRepo.existsById(news.getAuthor());
-		if(isExistsUserNews == false) {
-			List<News> newsList = new ArrayList<News>();
-			UserNews userNews = new UserNews();
-				newsList.add(news);
-				userNews.setUserId(news.getAuthor());
-				userNews.setNewslist(newsList);
-				UserNews userAdded = newsRepo.insert(userNews);
-				if(userAdded != null)
-					return true;
-				else
-					return false;
+	public boolean addNews(News news) throws NewsAlreadyExistsException {
+		allocateNewsId(news);
+		if(newsUrlRegistry == null) {
+			return insertNews(news);
+		}
+		Integer existingNewsId = newsUrlRegistry.claim(news);
+		if(existingNewsId != null) {
+			throw urlAlreadyExists(news.getAuthor(), news.getUrl(), existingNewsId);
+		}
+		boolean added = false;
+		try {
+			added = insertNews(news);
+			return added;
+		}
+		finally {
+			if(!added) {
+				newsUrlRegistry.release(news);
 			}
-		return false;
+		}
+	}
+
+	private boolean insertNews(News news) {
+		if(articleStorage) {
+			try {
+				newsArticleRepo.insert(new NewsArticle(news.getAuthor(), news));
+				newsSearchIndex.add(news.getAuthor(), news);
+				scheduleReminder(news.getAuthor(), news);
+				return true;
+			}
+			catch(DuplicateKeyException ex) {
+				return false;
+			}
+		}
+		PushResult pushed = newsRepo.pushNews(news.getAuthor(), news, maxNewsPerUser);
+		if(pushed == PushResult.ALREADY_EXISTS) {
+			return false;
+		}
+		if(pushed == PushResult.PUSHED_AND_EVICTED) {
+			/* The news evicted by the cap are not known, the index is rebuilt on the next search. */
+			newsSearchIndex.invalidate(news.getAuthor());
+		}
+		else {
+			newsSearchIndex.add(news.getAuthor(), news);
+		}
+		scheduleReminder(news.getAuthor(), news);
+		return true;
+	}
+
+	/*
+	 * This method should be used to save many news at once. The news are read from the
+	 * iterator and written in batches, each batch with a single unordered bulk write.
+	 * Returns the status of every news in the order they were read.
+	 */
+	@Override
+	public List<NewsIngestStatus> addAllNews(Iterator<News> newsIterator) {
+		List<NewsIngestStatus> statuses = new ArrayList<>();
+		List<News> batch = new ArrayList<>(INGEST_BATCH_SIZE);
+		while(newsIterator.hasNext()) {
+			batch.add(newsIterator.next());
+			if(batch.size() == INGEST_BATCH_SIZE) {
+				addBatch(batch, statuses);
+				batch.clear();
+			}
+		}
+		if(!batch.isEmpty()) {
+			addBatch(batch, statuses);
+		}
+		return statuses;
+	}
+
+	private void addBatch(List<News> batch, List<NewsIngestStatus> statuses) {
+		int offset = statuses.size();
+		Status[] batchStatuses = new Status[batch.size()];
+		Map<String, List<Integer>> indexesByAuthor = new LinkedHashMap<>();
+		for(int i = 0; i < batch.size(); i++) {
+			News news = batch.get(i);
+			if(news != null) {
+				allocateNewsId(news);
+			}
+			if(news == null || news.getNewsId() == null || news.getAuthor() == null) {
+				batchStatuses[i] = Status.INVALID;
+			}
+			else {
+				indexesByAuthor.computeIfAbsent(news.getAuthor(), author -> new ArrayList<>()).add(i);
+			}
+		}
+		List<Integer> claimed = claimUrls(batch, indexesByAuthor, batchStatuses);
+		if(articleStorage) {
+			addArticleBatch(batch, indexesByAuthor, batchStatuses);
+		}
+		else {
+			addEmbeddedBatch(batch, indexesByAuthor, batchStatuses);
+		}
+		for(int i: claimed) {
+			if(batchStatuses[i] != Status.CREATED) {
+				newsUrlRegistry.release(batch.get(i));
+			}
+		}
+		for(int i = 0; i < batch.size(); i++) {
+			statuses.add(new NewsIngestStatus(offset + i, batch.get(i), batchStatuses[i]));
+			if(batchStatuses[i] == Status.CREATED) {
+				scheduleReminder(batch.get(i).getAuthor(), batch.get(i));
+			}
+		}
+		indexesByAuthor.keySet().forEach(newsSearchIndex::invalidate);
+	}
+
+	/*
+	 * Claims the URLs of the valid news with one bulk insert. A news whose URL is already
+	 * held, or repeated in the batch, is a conflict and is dropped from indexesByAuthor.
+	 * Returns the indexes of the news that claimed their URL.
+	 */
+	private List<Integer> claimUrls(List<News> batch, Map<String, List<Integer>> indexesByAuthor, Status[] batchStatuses) {
+		List<Integer> claimed = new ArrayList<>();
+		if(newsUrlRegistry == null) {
+			return claimed;
+		}
+		List<Integer> indexes = new ArrayList<>();
+		List<News> newsList = new ArrayList<>();
+		for(List<Integer> authorIndexes: indexesByAuthor.values()) {
+			for(int i: authorIndexes) {
+				indexes.add(i);
+				newsList.add(batch.get(i));
+			}
+		}
+		Map<Integer, Integer> failedUrls = newsUrlRegistry.claimAll(newsList);
+		Set<Integer> failed = new HashSet<>();
+		for(Map.Entry<Integer, Integer> failedUrl: failedUrls.entrySet()) {
+			int i = indexes.get(failedUrl.getKey());
+			batchStatuses[i] = failedUrl.getValue() == DUPLICATE_KEY ? Status.CONFLICT : Status.FAILED;
+			failed.add(i);
+		}
+		for(List<Integer> authorIndexes: indexesByAuthor.values()) {
+			authorIndexes.removeIf(failed::contains);
+		}
+		for(int i: indexes) {
+			if(!failed.contains(i) && batch.get(i).getUrl() != null) {
+				claimed.add(i);
+			}
+		}
+		return claimed;
+	}
+
+	/*
+	 * News already stored for the author, or repeated in the batch, are conflicts. The
+	 * others are pushed with one upsert per author.
+	 */
+	private void addEmbeddedBatch(List<News> batch, Map<String, List<Integer>> indexesByAuthor, Status[] batchStatuses) {
+		Map<String, Set<Integer>> storedNewsIds = newsRepo.findNewsIdsByUserIds(indexesByAuthor.keySet());
+		Map<String, List<News>> newsByAuthor = new LinkedHashMap<>();
+		for(Map.Entry<String, List<Integer>> entry: indexesByAuthor.entrySet()) {
+			Set<Integer> newsIds = new HashSet<>(storedNewsIds.getOrDefault(entry.getKey(), new HashSet<>()));
+			for(int i: entry.getValue()) {
+				if(newsIds.add(batch.get(i).getNewsId())) {
+					newsByAuthor.computeIfAbsent(entry.getKey(), author -> new ArrayList<>()).add(batch.get(i));
+					batchStatuses[i] = Status.CREATED;
+				}
+				else {
+					batchStatuses[i] = Status.CONFLICT;
+				}
+			}
+		}
+		Map<String, Integer> failedAuthors = newsRepo.pushNewsByUserIds(newsByAuthor, maxNewsPerUser);
+		for(Map.Entry<String, Integer> failed: failedAuthors.entrySet()) {
+			Status status = failed.getValue() == DUPLICATE_KEY ? Status.CONFLICT : Status.FAILED;
+			for(int i: indexesByAuthor.get(failed.getKey())) {
+				if(batchStatuses[i] == Status.CREATED) {
+					batchStatuses[i] = status;
+				}
+			}
+		}
+	}
+
+	private void addArticleBatch(List<News> batch, Map<String, List<Integer>> indexesByAuthor, Status[] batchStatuses) {
+		List<Integer> indexes = new ArrayList<>();
+		List<NewsArticle> articles = new ArrayList<>();
+		for(List<Integer> authorIndexes: indexesByAuthor.values()) {
+			for(int i: authorIndexes) {
+				indexes.add(i);
+				articles.add(new NewsArticle(batch.get(i).getAuthor(), batch.get(i)));
+				batchStatuses[i] = Status.CREATED;
+			}
+		}
+		Map<Integer, Integer> failedArticles = newsArticleRepo.insertArticles(articles);
+		for(Map.Entry<Integer, Integer> failed: failedArticles.entrySet()) {
+			batchStatuses[indexes.get(failed.getKey())] = failed.getValue() == DUPLICATE_KEY ? Status.CONFLICT : Status.FAILED;
+		}
 	}
 
 	/* This method should be used to delete an existing news. */
 	
 	public boolean deleteNews(String userId, int newsId) {
-		UserNews userNews = newsRepo.findById(userId).get();
-		List<News> newsList = userNews.getNewslist();
-		for(News newsWithId:newsList) {
-			if(newsWithId.getNewsId().equals(newsId)) {
-			newsRepo.deleteById(userNews.getUserId());
-			return true;
+		boolean deleted = articleStorage
+				? newsArticleRepo.deleteByUserIdAndNewsId(userId, newsId) > 0
+				: newsRepo.deleteNewsByNewsId(userId, newsId);
+		if(deleted) {
+			newsSearchIndex.remove(userId, newsId);
+			if(newsUrlRegistry != null) {
+				newsUrlRegistry.releaseNews(userId, newsId);
+			}
+			if(reminderScheduler != null) {
+				reminderScheduler.cancel(userId, newsId);
 			}
 		}
-		return false;
+		return deleted;
 	}
 
-	/* This method should be used to delete all news for a  specific userId. */
+	/*
+	 * This method should be used to delete all news for a  specific userId. The search
+	 * index, reminders and URL claims of the user are only dropped once the news are.
+	 */
 	
 	public boolean deleteAllNews(String userId) throws NewsNotFoundException  {
+		if(articleStorage) {
+			if(newsArticleRepo.deleteByUserId(userId) > 0) {
+				releaseAllNews(userId);
+				return true;
+			}
+			throw new NewsNotFoundException("Can not Delete the News. The news with user ID: "+userId+ " does not exists in the database.");
+		}
 		try {
 		UserNews userNews = newsRepo.findById(userId).get();
 		List<News> newsList = userNews.getNewslist();
 		if(newsList != null) {
 			newsRepo.delete(userNews);
+			releaseAllNews(userId);
 			return true;
 		}}
 		catch(NoSuchElementException ex) {
@@ -92,33 +360,57 @@ public class NewsServiceImpl implements NewsService {
 		return false;
 	}
 
+	private void releaseAllNews(String userId) {
+		newsSearchIndex.invalidate(userId);
+		if(reminderScheduler != null) {
+			reminderScheduler.cancelAll(userId);
+		}
+		if(newsUrlRegistry != null) {
+			newsUrlRegistry.releaseAll(userId);
+		}
+	}
+
 	/*
-	 * This method should be used to update a existing news.
+	 * This method should be used to update a existing news. The new URL is claimed first,
+	 * a URL another news of the user already has is rejected with the newsId holding it.
 	 */
 
-	public News updateNews(News news, int newsId, String userId) throws NewsNotFoundException {
+	public News updateNews(News news, int newsId, String userId) throws NewsNotFoundException, NewsAlreadyExistsException {
+		if(newsUrlRegistry != null) {
+			Integer existingNewsId = newsUrlRegistry.reclaim(userId, newsId, news.getUrl());
+			if(existingNewsId != null) {
+				throw urlAlreadyExists(userId, news.getUrl(), existingNewsId);
+			}
+		}
 		try {
-		UserNews userNews = newsRepo.findById(userId).get();
-		List<News> newsList = userNews.getNewslist();
-		for(News newsWithId:newsList) {
-			if(newsWithId.getNewsId().equals(newsId)) {
-				newsWithId.setAuthor(news.getAuthor());
-				newsWithId.setContent(news.getContent());
-				newsWithId.setDescription(news.getDescription());
-				newsWithId.setTitle(news.getTitle());
-				newsWithId.setUrl(news.getUrl());
-				newsWithId.setUrlToImage(news.getUrlToImage());
-				newsWithId.setReminder(news.getReminder());
-				newsList.add(newsWithId);
-				userNews.setNewslist(newsList);
-				newsRepo.save(userNews);
-				return newsWithId;
+			return storeUpdate(news, newsId, userId);
+		}
+		catch(NewsNotFoundException ex) {
+			if(newsUrlRegistry != null) {
+				newsUrlRegistry.releaseNews(userId, newsId);
 			}
-		}}
-		catch(NoSuchElementException ex) {
+			throw ex;
+		}
+	}
+
+	private News storeUpdate(News news, int newsId, String userId) throws NewsNotFoundException {
+		if(articleStorage) {
+			NewsArticle article = newsArticleRepo.updateArticle(userId, newsId, news);
+			if(article == null) {
+				throw new NewsNotFoundException("Can not Update the News. The news with user ID: "+userId+ " and news ID: "+newsId+" does not exists in the database.");
+			}
+			News newsWithId = article.getNews();
+			newsSearchIndex.add(userId, newsWithId);
+			scheduleReminder(userId, newsWithId);
+			return newsWithId;
+		}
+		News newsUpdated = newsRepo.updateNewsByNewsId(userId, newsId, news);
+		if(newsUpdated == null) {
 			throw new NewsNotFoundException("Can not Update the News. The news with user ID: "+userId+ " and news ID: "+newsId+" does not exists in the database.");
 		}
-		return null;
+		newsSearchIndex.add(userId, newsUpdated);
+		scheduleReminder(userId, newsUpdated);
+		return newsUpdated;
 	}
 
 	/*
@@ -126,17 +418,28 @@ public class NewsServiceImpl implements NewsService {
 	 */
 
 	public News getNewsByNewsId(String userId, int newsId) throws NewsNotFoundException {
-		try {
-		UserNews userNews = newsRepo.findById(userId).get();
-		List<News> newsList = userNews.getNewslist();
-		for(News newsWithId:newsList) {
-			if(newsWithId.getNewsId().equals(newsId)){
-			return newsWithId;
-			}}
-		}catch(NoSuchElementException e) {
+		if(articleStorage) {
+			return newsArticleRepo.findByUserIdAndNewsId(userId, newsId)
+					.map(NewsArticle::getNews)
+					.orElseThrow(() -> new NewsNotFoundException("Can not Retrieve the News. The news with user ID: "+userId+ " and news  ID: "+newsId +" does not exists in the database."));
+		}
+		News newsById = newsRepo.findNewsByNewsId(userId, newsId);
+		if(newsById == null) {
 			throw new NewsNotFoundException("Can not Retrieve the News. The news with user ID: "+userId+ " and news  ID: "+newsId +" does not exists in the database.");
 		}
-		return null;
+		return newsById;
+	}
+
+	/*
+	 * This method should be used to check that a news created by specific user exists,
+	 * without reading it.
+	 */
+
+	public boolean existsNews(String userId, int newsId) {
+		if(articleStorage) {
+			return newsArticleRepo.existsByUserIdAndNewsId(userId, newsId);
+		}
+		return newsRepo.existsNews(userId, newsId);
 	}
 
 	/*
@@ -144,6 +447,90 @@ public class NewsServiceImpl implements NewsService {
 	 */
 
 	public List<News> getAllNewsByUserId(String userId) {
+		if(articleStorage) {
+			List<News> newsList = new ArrayList<News>();
+			for(NewsArticle article: newsArticleRepo.findByUserId(userId)) {
+				newsList.add(article.getNews());
+			}
+			return newsList.isEmpty() ? null : newsList;
+		}
 		return newsRepo.findById(userId).get().getNewslist();
 	}
+
+	/*
+	 * This method should be used to get one page of the news for a specific userId,
+	 * starting after the given cursor (or from the first news when it is null).
+	 */
+
+	public NewsPage getNewsPageByUserId(String userId, String after, int limit) {
+		if(limit <= 0 || limit > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("The page limit should be between 1 and " +MAX_PAGE_SIZE+ ".");
+		}
+		LocalDateTime afterPublishedAt = after == null ? null : NewsPage.cursorPublishedAt(after);
+		Integer afterNewsId = after == null ? null : NewsPage.cursorNewsId(after);
+		List<News> newsList;
+		if(articleStorage) {
+			PageRequest page = PageRequest.of(0, limit, Sort.by("news.publishedAt", "newsId"));
+			List<NewsArticle> articles = after == null
+					? newsArticleRepo.findByUserId(userId, page)
+					: newsArticleRepo.findByUserIdAfter(userId, afterPublishedAt, afterNewsId, page);
+			newsList = articles.stream().map(NewsArticle::getNews).collect(Collectors.toList());
+		}
+		else {
+			newsList = newsRepo.findNewsPage(userId, afterPublishedAt, afterNewsId, limit);
+		}
+		String next = newsList.size() < limit ? null : NewsPage.cursorOf(newsList.get(newsList.size() - 1));
+		return new NewsPage(newsList, next);
+	}
+
+	/*
+	 * This method should be used to stream all news for a specific userId off a
+	 * database cursor. The caller has to close the returned stream.
+	 */
+
+	public Stream<News> streamAllNewsByUserId(String userId) {
+		if(articleStorage) {
+			return newsArticleRepo.streamByUserId(userId).map(NewsArticle::getNews);
+		}
+		return newsRepo.streamNewsByUserId(userId);
+	}
+
+	/*
+	 * This method should be used to search the news of a specific userId. It returns the
+	 * news whose title, description or content contain every word of the query, from an
+	 * inverted index of the news of the user built on its first search.
+	 */
+
+	public List<News> searchNews(String userId, String query) {
+		return newsSearchIndex.search(userId, query, this::streamAllNewsByUserId);
+	}
+
+	/*
+	 * This method should be used to stream the reminders of all users due in [from, to)
+	 * off a database cursor. The caller has to close the returned stream.
+	 */
+
+	public Stream<NewsReminder> streamRemindersDueBetween(LocalDateTime from, LocalDateTime to) {
+		if(articleStorage) {
+			return newsArticleRepo.streamRemindersDueBetween(from, to);
+		}
+		return newsRepo.streamRemindersDueBetween(from, to);
+	}
+
+	private void allocateNewsId(News news) {
+		if(news.getNewsId() == null && newsIdAllocator != null) {
+			news.setNewsId(newsIdAllocator.nextId());
+		}
+	}
+
+	private static NewsAlreadyExistsException urlAlreadyExists(String userId, String url, int existingNewsId) {
+		return new NewsAlreadyExistsException("The news with URL: "+url+" already exists for user ID: "
+				+userId+" as news ID: "+existingNewsId, existingNewsId);
+	}
+
+	private void scheduleReminder(String userId, News news) {
+		if(reminderScheduler != null) {
+			reminderScheduler.schedule(userId, news);
+		}
+	}
 }
@@ -0,0 +1,9 @@
+package com.stackroute.newz.trace;
+
+/*
+ * Receives every finished trace, as its root span, on the thread that finished it.
+ */
+public interface SpanExporter {
+
+	void export(Span root);
+}
@@ -4,7 +4,19 @@ public class NewsAlreadyExistsException extends Exception {
 
 	private static final long serialVersionUID = 1L;
 
+	private final Integer existingNewsId;
+
 	public NewsAlreadyExistsException(String message) {
+		this(message, null);
+	}
+
+	/* Thrown when the news duplicates the news existingNewsId of the same user. */
+	public NewsAlreadyExistsException(String message, Integer existingNewsId) {
 		super(message);
+		this.existingNewsId = existingNewsId;
+	}
+
+	public Integer getExistingNewsId() {
+		return existingNewsId;
 	}
 }
@@ -0,0 +1,75 @@
+package com.stackroute.newz.test.aspect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stackroute.newz.aspect.InvocationRingBuffer;
+
+public class InvocationRingBufferTest {
+
+    private InvocationRingBuffer buffer;
+    private List<String> drained;
+
+    @BeforeEach
+    public void setUp() {
+        buffer = new InvocationRingBuffer(4);
+        drained = new ArrayList<>();
+    }
+
+    private void record(Object source, int status, long latencyNanos) {
+        drained.add(source + ":" + status + ":" + latencyNanos);
+    }
+
+    @Test
+    public void drainReturnsInvocationsInOrder() {
+        assertTrue(buffer.offer("createNews", 201, 10));
+        assertTrue(buffer.offer("getNews", 200, 20));
+
+        assertEquals(2, buffer.drain(this::record));
+        assertEquals(List.of("createNews:201:10", "getNews:200:20"), drained);
+        assertEquals(0, buffer.drain(this::record));
+    }
+
+    @Test
+    public void offerDropsWhenFull() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer("getNews", 200, i));
+        }
+        assertFalse(buffer.offer("getNews", 200, 4));
+        assertEquals(1, buffer.getDropped());
+
+        assertEquals(4, buffer.drain(this::record));
+        assertTrue(buffer.offer("getNews", 200, 5));
+        assertEquals(1, buffer.drain(this::record));
+        assertEquals("getNews:200:5", drained.get(4));
+    }
+
+    @Test
+    public void concurrentProducersLoseNothingButDrops() throws InterruptedException {
+        InvocationRingBuffer largeBuffer = new InvocationRingBuffer(1 << 16);
+        int producers = 4;
+        int invocations = 10000;
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            new Thread(() -> {
+                for (int i = 0; i < invocations; i++) {
+                    largeBuffer.offer("getNews", 200, i);
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        int count = largeBuffer.drain(this::record);
+        assertEquals(producers * invocations, count + largeBuffer.getDropped());
+        assertEquals(0, largeBuffer.getDropped());
+    }
+}
@@ -0,0 +1,66 @@
+package com.stackroute.newz.test.aspect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.stackroute.newz.aspect.RepositoryMetricsAspect;
+import com.stackroute.newz.model.UserNews;
+import com.stackroute.newz.repository.NewsRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RepositoryMetricsAspectTest {
+
+    private MeterRegistry meterRegistry;
+    private NewsRepository newsRepository;
+    private NewsRepository timedNewsRepository;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        newsRepository = mock(NewsRepository.class);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(newsRepository);
+        proxyFactory.addAspect(new RepositoryMetricsAspect(meterRegistry));
+        timedNewsRepository = proxyFactory.getProxy();
+    }
+
+    private Timer timer(String method, String state) {
+        return meterRegistry.get(RepositoryMetricsAspect.METRIC_NAME)
+                .tag("repository", "NewsRepository")
+                .tag("method", method)
+                .tag("state", state)
+                .timer();
+    }
+
+    @Test
+    public void repositoryCallsAreTimed() {
+        when(newsRepository.findById("Jhon123")).thenReturn(Optional.of(new UserNews()));
+        timedNewsRepository.findById("Jhon123");
+        timedNewsRepository.findById("Jhon123");
+        timedNewsRepository.deleteNewsByNewsId("Jhon123", 1);
+
+        assertEquals(2, timer("findById", "SUCCESS").count());
+        assertEquals(1, timer("deleteNewsByNewsId", "SUCCESS").count());
+    }
+
+    @Test
+    public void failedRepositoryCallsAreTimedWithTheirException() {
+        when(newsRepository.findById("Jhon123")).thenThrow(new IllegalStateException());
+        assertThrows(IllegalStateException.class, () -> timedNewsRepository.findById("Jhon123"));
+
+        assertEquals(1, meterRegistry.get(RepositoryMetricsAspect.METRIC_NAME)
+                .tag("state", "ERROR")
+                .tag("exception", "IllegalStateException")
+                .timer().count());
+    }
+}
@@ -8,9 +8,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stackroute.newz.controller.NewsController;
+import com.stackroute.newz.util.exception.NewsAlreadyExistsException;
 import com.stackroute.newz.util.exception.NewsNotFoundException;
 import com.stackroute.newz.model.NewsSource;
 import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsIngestStatus;
+import com.stackroute.newz.model.NewsPage;
 import com.stackroute.newz.model.Reminder;
 import com.stackroute.newz.service.NewsService;
 
@@ -25,6 +28,7 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -112,6 +116,19 @@ class NewsControllerTest {
     }
 
 
+    @Test
+    public void addNewsWithExistingUrl() throws Exception {
+        when(newsService.addNews(any())).thenThrow(new NewsAlreadyExistsException("duplicate URL", 1));
+        when(newsService.getNewsByNewsId("Becky123", 1)).thenReturn(news);
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/news").contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(news)))
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.header().string("Location", "/api/v1/news/Becky123/1"))
+                .andDo(MockMvcResultHandlers.print());
+
+    }
+
+
     @Test
     public void deleteNewsSuccess() throws Exception {
 
@@ -182,6 +199,19 @@ class NewsControllerTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    public void updateNewsWithExistingUrl() throws Exception {
+
+        when(newsService.updateNews(any(), eq(2), eq("Becky123"))).thenThrow(new NewsAlreadyExistsException("duplicate URL", 1));
+        when(newsService.getNewsByNewsId("Becky123", 1)).thenReturn(news);
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/news/Becky123/2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(news)))
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.header().string("Location", "/api/v1/news/Becky123/1"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
 
     @Test
     public void getNewsByIdSuccess() throws Exception {
@@ -222,6 +252,53 @@ class NewsControllerTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    public void getNewsPageByUserIdSuccess() throws Exception {
+        when(newsService.getNewsPageByUserId("Becky123", null, 10)).thenReturn(new NewsPage(newsList, null));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/news/Becky123?limit=10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    public void getNewsPageByUserIdFailure() throws Exception {
+        when(newsService.getNewsPageByUserId("Becky123", "bad", 10)).thenThrow(IllegalArgumentException.class);
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/news/Becky123?limit=10&after=bad")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    public void addAllNewsSuccess() throws Exception {
+        List<NewsIngestStatus> statuses = new ArrayList<>();
+        statuses.add(new NewsIngestStatus(0, news, NewsIngestStatus.Status.CREATED));
+        when(newsService.addAllNews(any())).thenReturn(statuses);
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/news/batch").contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(newsList)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    public void addAllNewsFromStreamWithMalformedLine() throws Exception {
+        when(newsService.addAllNews(any())).thenAnswer(invocation -> {
+            Iterator<News> newsIterator = invocation.getArgument(0);
+            List<NewsIngestStatus> statuses = new ArrayList<>();
+            while (newsIterator.hasNext()) {
+                statuses.add(new NewsIngestStatus(statuses.size(), newsIterator.next(), NewsIngestStatus.Status.CREATED));
+            }
+            return statuses;
+        });
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/news/batch").contentType("application/x-ndjson")
+                .content(asJsonString(news) + "\n{\"newsId\": \n"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("CREATED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value("MALFORMED"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
     private static String asJsonString(final Object obj) {
         try {
             return new ObjectMapper().writeValueAsString(obj);
@@ -0,0 +1,150 @@
+package com.stackroute.newz.test.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.stackroute.newz.dedup.BloomFilter;
+import com.stackroute.newz.dedup.NewsUrlRegistry;
+import com.stackroute.newz.dedup.UrlCanonicalizer;
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsUrl;
+import com.stackroute.newz.repository.NewsUrlRepository;
+
+public class NewsUrlRegistryTest {
+
+    private NewsUrlRepository newsUrlRepository;
+    private NewsUrlRegistry newsUrlRegistry;
+    private boolean newsExists;
+
+    @BeforeEach
+    public void setUp() {
+        newsUrlRepository = mock(NewsUrlRepository.class);
+        when(newsUrlRepository.streamUrlsByUserId("Becky123")).thenAnswer(invocation -> Stream.of(
+                new NewsUrl("Becky123", "https://www.cricbuzz.com/ipl/1", 1)));
+        newsExists = true;
+        newsUrlRegistry = new NewsUrlRegistry(newsUrlRepository, (userId, newsId) -> newsExists, 100, 30, 1000, 0.01);
+    }
+
+    private News news(int newsId, String url) {
+        News news = new News();
+        news.setNewsId(newsId);
+        news.setAuthor("Becky123");
+        news.setUrl(url);
+        return news;
+    }
+
+    @Test
+    public void urlsAreCanonicalized() {
+        String canonical = "https://www.cricbuzz.com/ipl/1?a=1&b=2";
+        assertEquals(canonical, UrlCanonicalizer.canonicalize(" HTTPS://WWW.Cricbuzz.com:443/ipl/./1?b=2&utm_source=x&a=1#top "));
+        assertEquals(canonical, UrlCanonicalizer.canonicalize("https://www.cricbuzz.com/ipl/live/../1?a=1&b=2&fbclid=abc"));
+        assertEquals("http://cricbuzz.com/", UrlCanonicalizer.canonicalize("http://cricbuzz.com:80"));
+        assertEquals("not a url", UrlCanonicalizer.canonicalize(" not a url "));
+        assertNull(UrlCanonicalizer.canonicalize(" "));
+    }
+
+    @Test
+    public void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("https://www.cricbuzz.com/news/" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("https://www.cricbuzz.com/news/" + i));
+            if (filter.mightContain("https://www.espncricinfo.com/news/" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void newUrlIsClaimedWithASingleInsert() {
+        assertNull(newsUrlRegistry.claim(news(2, "https://www.cricbuzz.com/ipl/2")));
+        verify(newsUrlRepository, never()).findByUserIdAndUrl(any(), any());
+        verify(newsUrlRepository, times(1)).insert(any(NewsUrl.class));
+    }
+
+    @Test
+    public void knownUrlReturnsTheNewsHoldingIt() {
+        when(newsUrlRepository.findByUserIdAndUrl("Becky123", "https://www.cricbuzz.com/ipl/1"))
+                .thenReturn(Optional.of(new NewsUrl("Becky123", "https://www.cricbuzz.com/ipl/1", 1)));
+
+        assertEquals(1, newsUrlRegistry.claim(news(2, "https://WWW.cricbuzz.com/ipl/1?utm_medium=feed")));
+        verify(newsUrlRepository, never()).insert(any(NewsUrl.class));
+    }
+
+    @Test
+    public void claimLeftByANewsNeverStoredIsDropped() {
+        NewsUrl dangling = new NewsUrl("Becky123", "https://www.cricbuzz.com/ipl/1", 1);
+        dangling.setClaimedAt(System.currentTimeMillis() - NewsUrlRegistry.CLAIM_GRACE_MILLIS);
+        when(newsUrlRepository.findByUserIdAndUrl("Becky123", "https://www.cricbuzz.com/ipl/1"))
+                .thenReturn(Optional.of(dangling));
+        newsExists = false;
+
+        assertNull(newsUrlRegistry.claim(news(2, "https://www.cricbuzz.com/ipl/1")));
+        verify(newsUrlRepository).deleteByUserIdAndUrlAndNewsId("Becky123", "https://www.cricbuzz.com/ipl/1", 1);
+        verify(newsUrlRepository, times(1)).insert(any(NewsUrl.class));
+    }
+
+    @Test
+    public void recentClaimOfANewsBeingStoredIsKept() {
+        when(newsUrlRepository.findByUserIdAndUrl("Becky123", "https://www.cricbuzz.com/ipl/1"))
+                .thenReturn(Optional.of(new NewsUrl("Becky123", "https://www.cricbuzz.com/ipl/1", 1)));
+        newsExists = false;
+
+        assertEquals(1, newsUrlRegistry.claim(news(2, "https://www.cricbuzz.com/ipl/1")));
+        verify(newsUrlRepository, never()).deleteByUserIdAndUrlAndNewsId(any(), any(), any());
+    }
+
+    @Test
+    public void updateToTheUrlOfAnotherNewsIsRefused() {
+        when(newsUrlRepository.findByUserIdAndUrl("Becky123", "https://www.cricbuzz.com/ipl/1"))
+                .thenReturn(Optional.of(new NewsUrl("Becky123", "https://www.cricbuzz.com/ipl/1", 1)));
+
+        assertEquals(1, newsUrlRegistry.reclaim("Becky123", 2, "https://www.cricbuzz.com/ipl/1"));
+        assertNull(newsUrlRegistry.reclaim("Becky123", 1, "https://www.cricbuzz.com/ipl/1"));
+        assertNull(newsUrlRegistry.reclaim("Becky123", 2, "https://www.cricbuzz.com/ipl/2"));
+        verify(newsUrlRepository, never()).upsertUrl("Becky123", 2, "https://www.cricbuzz.com/ipl/1");
+        verify(newsUrlRepository).upsertUrl("Becky123", 1, "https://www.cricbuzz.com/ipl/1");
+        verify(newsUrlRepository).upsertUrl("Becky123", 2, "https://www.cricbuzz.com/ipl/2");
+    }
+
+    @Test
+    public void urlClaimedConcurrentlyReturnsTheNewsHoldingIt() {
+        when(newsUrlRepository.insert(any(NewsUrl.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(newsUrlRepository.findByUserIdAndUrl("Becky123", "https://www.cricbuzz.com/ipl/3"))
+                .thenReturn(Optional.of(new NewsUrl("Becky123", "https://www.cricbuzz.com/ipl/3", 3)));
+
+        assertEquals(3, newsUrlRegistry.claim(news(4, "https://www.cricbuzz.com/ipl/3")));
+    }
+
+    @Test
+    public void batchClaimsReportFailuresByPosition() {
+        List<News> newsList = Arrays.asList(news(2, null), news(3, "https://www.cricbuzz.com/ipl/3"),
+                news(4, "https://www.cricbuzz.com/ipl/1"));
+        when(newsUrlRepository.insertUrls(any())).thenReturn(Collections.singletonMap(1, 11000));
+
+        Map<Integer, Integer> failed = newsUrlRegistry.claimAll(newsList);
+        assertEquals(Collections.singletonMap(2, 11000), failed);
+    }
+}
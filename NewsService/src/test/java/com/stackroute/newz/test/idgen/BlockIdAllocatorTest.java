@@ -0,0 +1,101 @@
+package com.stackroute.newz.test.idgen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stackroute.newz.idgen.BlockIdAllocator;
+import com.stackroute.newz.repository.IdCounterRepository;
+
+public class BlockIdAllocatorTest {
+
+    private AtomicLong counter;
+    private IdCounterRepository idCounterRepository;
+
+    @BeforeEach
+    public void setUp() {
+        counter = new AtomicLong();
+        idCounterRepository = mock(IdCounterRepository.class);
+        when(idCounterRepository.leaseBlock(eq("news"), anyInt()))
+                .thenAnswer(invocation -> counter.addAndGet(invocation.<Integer>getArgument(1)));
+    }
+
+    @Test
+    public void idsAreTakenFromLeasedBlocks() {
+        BlockIdAllocator allocator = new BlockIdAllocator(idCounterRepository, "news", 10);
+        for (int id = 1; id <= 25; id++) {
+            assertEquals(id, allocator.nextId());
+        }
+        verify(idCounterRepository, times(3)).leaseBlock("news", 10);
+    }
+
+    @Test
+    public void idsStartAboveTheIdsAlreadyStored() {
+        doAnswer(invocation -> counter.accumulateAndGet(invocation.<Long>getArgument(1), Math::max))
+                .when(idCounterRepository).raiseTo(eq("news"), anyLong());
+        BlockIdAllocator allocator = new BlockIdAllocator(idCounterRepository, "news", 10);
+        allocator.seed(1);
+        assertEquals(2, allocator.nextId());
+        for (int id = 3; id <= 12; id++) {
+            assertEquals(id, allocator.nextId());
+        }
+        verify(idCounterRepository, times(1)).raiseTo("news", 1);
+    }
+
+    @Test
+    public void instancesSharingTheCounterNeverHandOutTheSameId() throws Exception {
+        List<BlockIdAllocator> allocators = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            allocators.add(new BlockIdAllocator(idCounterRepository, "news", 100));
+        }
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 16; thread++) {
+            BlockIdAllocator allocator = allocators.get(thread % allocators.size());
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    ids.add(allocator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertEquals(80000, ids.size());
+        assertEquals(0, counter.get() % 100);
+    }
+
+    @Test
+    public void exhaustedSequenceFails() {
+        counter.set(Integer.MAX_VALUE - 5);
+        BlockIdAllocator allocator = new BlockIdAllocator(idCounterRepository, "news", 10);
+        for (int i = 0; i < 5; i++) {
+            allocator.nextId();
+        }
+        assertThrows(IllegalStateException.class, allocator::nextId);
+    }
+}
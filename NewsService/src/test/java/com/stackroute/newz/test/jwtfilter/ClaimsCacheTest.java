@@ -0,0 +1,84 @@
+package com.stackroute.newz.test.jwtfilter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stackroute.newz.jwtfilter.ClaimsCache;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+public class ClaimsCacheTest {
+
+    private ClaimsCache claimsCache;
+    private AtomicInteger parsed;
+
+    @BeforeEach
+    public void setUp() {
+        claimsCache = new ClaimsCache(2, 60000);
+        parsed = new AtomicInteger();
+    }
+
+    private Function<String, Claims> parser(Date expiration) {
+        return token -> {
+            parsed.incrementAndGet();
+            return Jwts.claims().setSubject(token).setExpiration(expiration);
+        };
+    }
+
+    @Test
+    public void getReturnsCachedClaims() {
+        Date expiration = new Date(System.currentTimeMillis() + 60000);
+        Claims claims = claimsCache.get("token1", parser(expiration));
+
+        assertSame(claims, claimsCache.get("token1", parser(expiration)));
+        assertEquals(1, parsed.get());
+        assertEquals(1, claimsCache.getHits());
+        assertEquals(1, claimsCache.getMisses());
+    }
+
+    @Test
+    public void getParsesExpiredToken() {
+        Date expiration = new Date(System.currentTimeMillis() - 1000);
+        claimsCache.get("token1", parser(expiration));
+        claimsCache.get("token1", parser(expiration));
+
+        assertEquals(2, parsed.get());
+        assertEquals(0, claimsCache.getHits());
+    }
+
+    @Test
+    public void getEvictsLeastRecentlyUsed() {
+        Date expiration = new Date(System.currentTimeMillis() + 60000);
+        claimsCache.get("token1", parser(expiration));
+        claimsCache.get("token2", parser(expiration));
+        claimsCache.get("token1", parser(expiration));
+        claimsCache.get("token3", parser(expiration));
+        claimsCache.get("token1", parser(expiration));
+        claimsCache.get("token2", parser(expiration));
+
+        assertEquals(4, parsed.get());
+        assertEquals(2, claimsCache.size());
+    }
+
+    @Test
+    public void getDoesNotCacheInvalidToken() {
+        Function<String, Claims> failing = token -> {
+            parsed.incrementAndGet();
+            throw new IllegalArgumentException("invalid token");
+        };
+        assertThrows(IllegalArgumentException.class, () -> claimsCache.get("token1", failing));
+        assertThrows(IllegalArgumentException.class, () -> claimsCache.get("token1", failing));
+
+        assertEquals(2, parsed.get());
+        assertEquals(0, claimsCache.size());
+    }
+}
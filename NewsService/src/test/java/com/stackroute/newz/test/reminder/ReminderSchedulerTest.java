@@ -0,0 +1,225 @@
+package com.stackroute.newz.test.reminder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsReminder;
+import com.stackroute.newz.model.Reminder;
+import com.stackroute.newz.model.ReminderCursor;
+import com.stackroute.newz.reminder.ReminderScheduler;
+import com.stackroute.newz.reminder.ReminderSink;
+import com.stackroute.newz.repository.ReminderCursorRepository;
+
+public class ReminderSchedulerTest {
+
+    private static final long START = 1_600_000_000_000L;
+
+    private List<NewsReminder> stored;
+    private List<LocalDateTime[]> windows;
+    private List<NewsReminder> delivered;
+    private ReminderCursorRepository cursorRepository;
+    private ReminderSink sink;
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        stored = new ArrayList<>();
+        windows = new ArrayList<>();
+        delivered = new ArrayList<>();
+        cursorRepository = mock(ReminderCursorRepository.class);
+        when(cursorRepository.findById(ReminderScheduler.CURSOR_ID)).thenReturn(Optional.empty());
+        when(cursorRepository.acquireLease(eq(ReminderScheduler.CURSOR_ID), any(), anyLong(), anyLong())).thenReturn(true);
+        when(cursorRepository.saveDispatchedUntil(eq(ReminderScheduler.CURSOR_ID), any(), anyLong())).thenReturn(true);
+        sink = delivered::addAll;
+        scheduler = newScheduler();
+    }
+
+    private ReminderScheduler newScheduler() {
+        return newScheduler(cursorRepository);
+    }
+
+    private ReminderScheduler newScheduler(ReminderCursorRepository cursorRepository) {
+        return new ReminderScheduler((from, to) -> {
+            windows.add(new LocalDateTime[] { from, to });
+            return stored.stream().filter(reminder -> !reminder.getSchedule().isBefore(from)
+                    && reminder.getSchedule().isBefore(to));
+        }, cursorRepository, reminders -> sink.deliver(reminders), 1000, 60000, 64, 4, 2,
+                30000);
+    }
+
+    private static LocalDateTime at(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /* Stores the reminder of the news, then reports it to the scheduler as the service does. */
+    private void write(ReminderScheduler scheduler, String userId, News news) {
+        stored.removeIf(reminder -> reminder.getUserId().equals(userId) && reminder.getNewsId() == news.getNewsId());
+        if (news.getReminder() != null) {
+            stored.add(new NewsReminder(userId, news.getNewsId(), news.getReminder().getSchedule()));
+        }
+        scheduler.schedule(userId, news);
+    }
+
+    private void delete(ReminderScheduler scheduler, String userId, int newsId) {
+        stored.removeIf(reminder -> reminder.getUserId().equals(userId) && reminder.getNewsId() == newsId);
+        scheduler.cancel(userId, newsId);
+    }
+
+    private static News news(int newsId, long dueMillis) {
+        News news = new News();
+        news.setNewsId(newsId);
+        news.setReminder(new Reminder("reminder" + newsId, at(dueMillis)));
+        return news;
+    }
+
+    @Test
+    public void dueRemindersAreLoadedByWindowAndDeliveredInBatches() {
+        for (int newsId = 1; newsId <= 3; newsId++) {
+            stored.add(new NewsReminder("Becky123", newsId, at(START + 5000)));
+        }
+        stored.add(new NewsReminder("Becky123", 4, at(START + 90000)));
+        scheduler.resume(START);
+
+        scheduler.tick(START);
+        assertEquals(at(START + 60000), windows.get(0)[1]);
+        assertEquals(3, scheduler.size());
+        scheduler.tick(START + 4999);
+        assertEquals(0, delivered.size());
+
+        scheduler.tick(START + 5000);
+        assertEquals(3, delivered.size());
+        verify(cursorRepository).saveDispatchedUntil(eq(ReminderScheduler.CURSOR_ID), any(), eq(START + 6000));
+
+        scheduler.tick(START + 90000);
+        assertEquals(4, delivered.size());
+        assertTrue(windows.stream().anyMatch(window -> window[1].equals(at(START + 150000))));
+    }
+
+    @Test
+    public void writesOfTheServiceUpdateTheLoadedWindowOnly() {
+        scheduler.resume(START);
+        scheduler.tick(START);
+
+        write(scheduler, "Becky123", news(1, START + 3000));
+        write(scheduler, "Becky123", news(2, START + 3000));
+        write(scheduler, "Becky123", news(3, START + 3000));
+        write(scheduler, "Becky123", news(4, START + 3600000));
+        write(scheduler, "Jhon123", news(1, START + 3000));
+        write(scheduler, "Becky123", news(2, START + 4000));
+        delete(scheduler, "Becky123", 3);
+        stored.removeIf(reminder -> reminder.getUserId().equals("Jhon123"));
+        scheduler.cancelAll("Jhon123");
+        assertEquals(2, scheduler.size());
+
+        scheduler.tick(START + 3000);
+        assertEquals(1, delivered.size());
+        assertEquals(1, delivered.get(0).getNewsId());
+        scheduler.tick(START + 4000);
+        assertEquals(2, delivered.get(1).getNewsId());
+    }
+
+    @Test
+    public void failedBatchesAreRetriedWithoutMovingTheCursor() {
+        sink = mock(ReminderSink.class);
+        doThrow(new IllegalStateException("sink down")).when(sink).deliver(any());
+        stored.add(new NewsReminder("Becky123", 1, at(START + 1000)));
+        scheduler.resume(START);
+
+        scheduler.tick(START + 1000);
+        verify(cursorRepository, never()).saveDispatchedUntil(any(), any(), anyLong());
+        assertEquals(1, scheduler.size());
+
+        sink = delivered::addAll;
+        scheduler.tick(START + 2000);
+        assertEquals(1, delivered.size());
+        verify(cursorRepository).saveDispatchedUntil(any(), any(), anyLong());
+    }
+
+    @Test
+    public void resumesFromTheSavedCursor() {
+        when(cursorRepository.findById(ReminderScheduler.CURSOR_ID))
+                .thenReturn(Optional.of(new ReminderCursor(ReminderScheduler.CURSOR_ID, START)));
+        stored.add(new NewsReminder("Becky123", 1, at(START - 1000)));
+        stored.add(new NewsReminder("Becky123", 2, at(START + 1000)));
+        scheduler.resume(START + 30000);
+
+        scheduler.tick(START + 30000);
+        assertEquals(at(START), windows.get(0)[0]);
+        assertEquals(1, delivered.size());
+        assertEquals(2, delivered.get(0).getNewsId());
+    }
+
+    @Test
+    public void onlyTheInstanceHoldingTheLeaseDispatches() {
+        when(cursorRepository.acquireLease(eq(ReminderScheduler.CURSOR_ID), any(), anyLong(), anyLong())).thenReturn(false);
+        stored.add(new NewsReminder("Becky123", 1, at(START + 1000)));
+
+        scheduler.tick(START);
+        scheduler.schedule("Becky123", news(2, START + 1000));
+        scheduler.tick(START + 1000);
+        assertEquals(0, scheduler.size());
+        assertEquals(0, windows.size());
+        assertEquals(0, delivered.size());
+
+        when(cursorRepository.findById(ReminderScheduler.CURSOR_ID))
+                .thenReturn(Optional.of(new ReminderCursor(ReminderScheduler.CURSOR_ID, START)));
+        when(cursorRepository.acquireLease(eq(ReminderScheduler.CURSOR_ID), any(), anyLong(), anyLong())).thenReturn(true);
+        scheduler.tick(START + 2000);
+        assertEquals(1, delivered.size());
+        assertEquals(1, delivered.get(0).getNewsId());
+
+        when(cursorRepository.saveDispatchedUntil(eq(ReminderScheduler.CURSOR_ID), any(), anyLong())).thenReturn(false);
+        write(scheduler, "Becky123", news(3, START + 3000));
+        scheduler.tick(START + 3000);
+        write(scheduler, "Becky123", news(4, START + 4000));
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void writesThroughTheInstanceWithoutTheLeaseAreDispatched() {
+        ReminderCursorRepository otherCursorRepository = mock(ReminderCursorRepository.class);
+        when(otherCursorRepository.acquireLease(eq(ReminderScheduler.CURSOR_ID), any(), anyLong(), anyLong()))
+                .thenReturn(false);
+        ReminderScheduler other = newScheduler(otherCursorRepository);
+        stored.add(new NewsReminder("Becky123", 2, at(START + 3000)));
+        stored.add(new NewsReminder("Becky123", 3, at(START + 3000)));
+        scheduler.resume(START);
+        scheduler.tick(START);
+        other.tick(START);
+        assertEquals(2, scheduler.size());
+
+        write(other, "Becky123", news(1, START + 3000));
+        delete(other, "Becky123", 2);
+        write(other, "Becky123", news(3, START + 5000));
+        assertEquals(0, other.size());
+
+        scheduler.tick(START + 3000);
+        assertEquals(1, delivered.size());
+        assertEquals(1, delivered.get(0).getNewsId());
+        scheduler.tick(START + 4000);
+        scheduler.tick(START + 5000);
+        assertEquals(2, delivered.size());
+        assertEquals(3, delivered.get(1).getNewsId());
+        scheduler.tick(START + 6000);
+        assertEquals(2, delivered.size());
+    }
+}
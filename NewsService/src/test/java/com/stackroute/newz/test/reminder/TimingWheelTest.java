@@ -0,0 +1,86 @@
+package com.stackroute.newz.test.reminder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stackroute.newz.reminder.TimingWheel;
+
+public class TimingWheelTest {
+
+    private TimingWheel<String, Long> wheel;
+    private List<Long> expired;
+
+    @BeforeEach
+    public void setUp() {
+        wheel = new TimingWheel<>(10, 4, 2, 0);
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    public void valuesExpireOnTheirTickAcrossLevelsAndOverflow() {
+        wheel.schedule("a", 15L, 15);
+        wheel.schedule("b", 95L, 95);
+        wheel.schedule("c", 1005L, 1005);
+        wheel.schedule("d", 0L, 0);
+
+        wheel.advanceTo(9, expired::add);
+        assertEquals(Collections.singletonList(0L), expired);
+        wheel.advanceTo(89, expired::add);
+        assertEquals(Arrays.asList(0L, 15L), expired);
+        wheel.advanceTo(99, expired::add);
+        assertEquals(Arrays.asList(0L, 15L, 95L), expired);
+        wheel.advanceTo(999, expired::add);
+        assertEquals(3, expired.size());
+        wheel.advanceTo(1009, expired::add);
+        assertEquals(Arrays.asList(0L, 15L, 95L, 1005L), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void rescheduledAndCancelledValuesDoNotExpire() {
+        wheel.schedule("a", 1L, 500);
+        wheel.schedule("b", 2L, 500);
+        wheel.schedule("a", 3L, 200);
+        assertTrue(wheel.cancel("b"));
+        wheel.schedule("c", 4L, 300);
+        wheel.cancelIf(value -> value == 4L);
+
+        wheel.advanceTo(1000, expired::add);
+        assertEquals(Collections.singletonList(3L), expired);
+    }
+
+    @Test
+    public void randomDueTimesExpireInOrder() {
+        Random random = new Random(42);
+        List<Long> dueTimes = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            long due = random.nextInt(100000);
+            dueTimes.add(due);
+            wheel.schedule("news" + i, due, due);
+        }
+        for (long now = 0; now < 100000; now += 1 + random.nextInt(700)) {
+            int before = expired.size();
+            wheel.advanceTo(now, expired::add);
+            for (int i = before; i < expired.size(); i++) {
+                assertTrue(expired.get(i) / 10 <= now / 10);
+            }
+        }
+        wheel.advanceTo(100000, expired::add);
+        Collections.sort(dueTimes);
+        List<Long> sorted = new ArrayList<>(expired);
+        Collections.sort(sorted);
+        assertEquals(dueTimes, sorted);
+        for (int i = 1; i < expired.size(); i++) {
+            assertTrue(expired.get(i - 1) / 10 <= expired.get(i) / 10);
+        }
+    }
+}
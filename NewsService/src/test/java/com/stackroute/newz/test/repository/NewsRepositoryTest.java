@@ -129,4 +129,32 @@ public class NewsRepositoryTest {
         List<News> allNews = newsRepository.findById("Becky123").get().getNewslist();
         assertThat(allNews.size(),is(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void updateNewsByNewsIdTest() {
+    	newsRepository.insert(userNews);
+        news.setContent("CSK vs RCB match scheduled  for 4 PM is cancelled");
+        News updated = newsRepository.updateNewsByNewsId("Becky123", 1, news);
+        assertThat("CSK vs RCB match scheduled  for 4 PM is cancelled", is(updated.getContent()));
+        List<News> allNews = newsRepository.findById("Becky123").get().getNewslist();
+        assertThat(allNews.size(), is(1));
+        assertThat("CSK vs RCB match scheduled  for 4 PM is cancelled", is(allNews.get(0).getContent()));
+    }
+
+    @Test
+    public void deleteNewsByNewsIdTest() {
+    	newsRepository.insert(userNews);
+        assertThat(newsRepository.deleteNewsByNewsId("Becky123", 1), is(true));
+        assertThat(newsRepository.deleteNewsByNewsId("Becky123", 1), is(false));
+        List<News> allNews = newsRepository.findById("Becky123").get().getNewslist();
+        assertThat(true, is(allNews.isEmpty()));
+    }
+
+    @Test
+    public void findNewsByNewsIdTest() {
+    	newsRepository.insert(userNews);
+        News fetched = newsRepository.findNewsByNewsId("Becky123", 1);
+        assertThat(fetched.getNewsId(), is(1));
+        assertThat(newsRepository.findNewsByNewsId("Becky123", 2) == null, is(true));
+    }
+}
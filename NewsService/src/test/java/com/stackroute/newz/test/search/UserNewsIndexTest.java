@@ -0,0 +1,99 @@
+package com.stackroute.newz.test.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stackroute.newz.model.News;
+import com.stackroute.newz.search.NewsSearchIndex;
+import com.stackroute.newz.search.NewsTokenizer;
+import com.stackroute.newz.search.UserNewsIndex;
+
+public class UserNewsIndexTest {
+
+    private UserNewsIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new UserNewsIndex();
+    }
+
+    private News news(int newsId, String title, String content) {
+        News news = new News();
+        news.setNewsId(newsId);
+        news.setTitle(title);
+        news.setContent(content);
+        return news;
+    }
+
+    private List<News> search(String query) {
+        return index.search(NewsTokenizer.terms(query));
+    }
+
+    @Test
+    public void tokenizerLowerCasesAndDropsShortTerms() {
+        assertEquals(Arrays.asList("iplt20", "match", "01", "csk"),
+                Arrays.asList(NewsTokenizer.terms("IPLT20 Match - 01: a CSK match").toArray()));
+    }
+
+    @Test
+    public void searchMatchesAllTermsInNewsIdOrder() {
+        News third = news(3, "CSK vs MI", "Final at Chennai");
+        News first = news(1, "CSK vs RCB", "Match at Bangalore");
+        News second = news(2, "MI vs KKR", "Match at Mumbai");
+        index.add(third);
+        index.add(first);
+        index.add(second);
+
+        assertEquals(Arrays.asList(first, third), search("csk"));
+        assertEquals(Arrays.asList(first, second), search("MATCH"));
+        assertEquals(Collections.singletonList(third), search("mi csk"));
+        assertEquals(0, search("csk kkr").size());
+        assertEquals(0, search("delhi").size());
+    }
+
+    @Test
+    public void updatedAndRemovedNewsLeaveTheirTerms() {
+        index.add(news(1, "CSK vs RCB", null));
+        index.add(news(1, "MI vs KKR", null));
+        assertEquals(0, search("csk").size());
+        assertEquals(1, search("kkr").size());
+
+        index.remove(1);
+        assertEquals(0, search("kkr").size());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void newsAddedWhileTheIndexIsBuiltIsNotLost() throws Exception {
+        NewsSearchIndex searchIndex = new NewsSearchIndex();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        Thread searcher = new Thread(() -> searchIndex.search("Becky123", "match", userId -> {
+            loading.countDown();
+            try {
+                loaded.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return Stream.of(news(1, "IPL match", "CSK won"));
+        }));
+        searcher.start();
+        loading.await();
+        Thread writer = new Thread(() -> searchIndex.add("Becky123", news(2, "Test match", "India won")));
+        writer.start();
+        Thread.sleep(100);
+        loaded.countDown();
+        searcher.join();
+        writer.join();
+
+        assertEquals(2, searchIndex.search("Becky123", "match", userId -> Stream.empty()).size());
+    }
+}
@@ -1,12 +1,22 @@
 package com.stackroute.newz.test.service;
 
 
+import com.stackroute.newz.util.exception.NewsAlreadyExistsException;
 import com.stackroute.newz.util.exception.NewsNotFoundException;
 import com.stackroute.newz.model.NewsSource;
 import com.stackroute.newz.model.News;
+import com.stackroute.newz.model.NewsArticle;
+import com.stackroute.newz.model.NewsIngestStatus;
+import com.stackroute.newz.model.NewsPage;
 import com.stackroute.newz.model.UserNews;
 import com.stackroute.newz.model.Reminder;
+import com.stackroute.newz.dedup.NewsUrlRegistry;
+import com.stackroute.newz.idgen.BlockIdAllocator;
+import com.stackroute.newz.reminder.ReminderScheduler;
+import com.stackroute.newz.repository.NewsArticleRepository;
 import com.stackroute.newz.repository.NewsRepository;
+import com.stackroute.newz.repository.NewsRepositoryCustom.PushResult;
+import com.stackroute.newz.search.NewsSearchIndex;
 import com.stackroute.newz.service.NewsServiceImpl;
 import java.util.Optional;
 
@@ -19,12 +29,20 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.NoSuchElementException;
 
 public class NewsServiceImplTest {
@@ -36,10 +54,14 @@ public class NewsServiceImplTest {
     private Reminder reminder;
     @Mock
     private NewsRepository newsRepository;
+    @Mock
+    private NewsArticleRepository newsArticleRepository;
     @InjectMocks
     private NewsServiceImpl newsServiceImpl;
     private List<News> newsList = null;
     Optional<UserNews> options;
+    private NewsServiceImpl articleNewsService;
+    private NewsArticle newsArticle;
 
 
     @BeforeEach
@@ -80,21 +102,24 @@ public class NewsServiceImplTest {
         userNews.setNewslist(newsList);
 
         options = Optional.of(userNews);
+
+        articleNewsService = new NewsServiceImpl(newsRepository, newsArticleRepository, "article");
+        newsArticle = new NewsArticle("Becky123", news);
         
     }
 
 
     @Test
-    public void addNewsSuccess() {
-        when(newsRepository.insert((UserNews) any())).thenReturn(userNews);
+    public void addNewsSuccess() throws NewsAlreadyExistsException {
+        when(newsRepository.pushNews("Becky123", news, 0)).thenReturn(PushResult.PUSHED);
         boolean status = newsServiceImpl.addNews(news);
         assertEquals(true, status);
     }
 
     @Test
-    public void addNewsFailure() {
+    public void addNewsFailure() throws NewsAlreadyExistsException {
 
-        when(newsRepository.insert(userNews)).thenReturn(null);
+        when(newsRepository.pushNews("Becky123", news, 0)).thenReturn(PushResult.ALREADY_EXISTS);
         boolean status = newsServiceImpl.addNews(news);
         assertEquals(false, status);
      }
@@ -102,21 +127,17 @@ public class NewsServiceImplTest {
 
     @Test
     public void deleteNewsSuccess() {
-        when(newsRepository.findById(userNews.getUserId())).thenReturn(options);
-        when(newsRepository.save(userNews)).thenReturn(userNews);
+        when(newsRepository.deleteNewsByNewsId("Becky123", news.getNewsId())).thenReturn(true);
         boolean flag = newsServiceImpl.deleteNews("Becky123", news.getNewsId());
         assertEquals(true, flag);
+        verify(newsRepository, never()).deleteById("Becky123");
     }
 
     @Test
     public void deleteNewsFailure() {
-        when(newsRepository.findById(userNews.getUserId())).thenReturn(null);
-        when(newsRepository.save(userNews)).thenReturn(userNews);
-        
-        assertThrows(
-        		NullPointerException.class,
-                    () -> { newsServiceImpl.deleteNews("Becky123", news.getNewsId()); });
-    
+        when(newsRepository.deleteNewsByNewsId("Becky123", news.getNewsId())).thenReturn(false);
+        boolean flag = newsServiceImpl.deleteNews("Becky123", news.getNewsId());
+        assertEquals(false, flag);
     }
 
 
@@ -143,23 +164,22 @@ public class NewsServiceImplTest {
     }
 
     @Test
-    public void updateNewsSuccess() throws NewsNotFoundException {
+    public void updateNewsSuccess() throws Exception {
 
-        when(newsRepository.findById("Becky123")).thenReturn(options);
         news.setContent("Match cancelled");
-        newsList.add(news);
+        when(newsRepository.updateNewsByNewsId("Becky123", news.getNewsId(), news)).thenReturn(news);
         News fetchedNews = newsServiceImpl.updateNews(news, news.getNewsId(), news.getAuthor());
         assertEquals(news, fetchedNews);
+        verify(newsRepository, never()).save(any());
 
 
     }
 
     @Test
-    public void updateNewsFailure() throws NewsNotFoundException {
+    public void updateNewsFailure() throws Exception {
 
-        when(newsRepository.findById("Becky123")).thenThrow(NoSuchElementException.class);
+        when(newsRepository.updateNewsByNewsId("Becky123", news.getNewsId(), news)).thenReturn(null);
         news.setContent("Match cancelled");
-        newsList.add(news);
         
         assertThrows(
         		NewsNotFoundException.class,
@@ -169,14 +189,14 @@ public class NewsServiceImplTest {
 
     @Test
     public void getNewsByNewsIdSuccess() throws NewsNotFoundException {
-        when(newsRepository.findById("Becky123")).thenReturn(options);
+        when(newsRepository.findNewsByNewsId("Becky123", news.getNewsId())).thenReturn(news);
         News fetechedNews = newsServiceImpl.getNewsByNewsId("Becky123", news.getNewsId());
         assertEquals(news, fetechedNews);
     }
 
     @Test
     public void getNewsByNewsIdFailure() throws NewsNotFoundException {
-        when(newsRepository.findById("Becky123")).thenThrow(NoSuchElementException.class);
+        when(newsRepository.findNewsByNewsId("Becky123", news.getNewsId())).thenReturn(null);
         
         assertThrows(
         		NewsNotFoundException.class,
@@ -190,4 +210,267 @@ public class NewsServiceImplTest {
         List<News> newslist1 = newsServiceImpl.getAllNewsByUserId("Becky123");
         assertEquals(newsList, newslist1);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void addNewsArticleSuccess() throws NewsAlreadyExistsException {
+        when(newsArticleRepository.insert((NewsArticle) any())).thenReturn(newsArticle);
+        boolean status = articleNewsService.addNews(news);
+        assertEquals(true, status);
+    }
+
+    @Test
+    public void addNewsArticleFailure() throws NewsAlreadyExistsException {
+        when(newsArticleRepository.insert((NewsArticle) any())).thenThrow(DuplicateKeyException.class);
+        boolean status = articleNewsService.addNews(news);
+        assertEquals(false, status);
+    }
+
+    @Test
+    public void deleteNewsArticleSuccess() {
+        when(newsArticleRepository.deleteByUserIdAndNewsId("Becky123", 1)).thenReturn(1L);
+        boolean flag = articleNewsService.deleteNews("Becky123", news.getNewsId());
+        assertEquals(true, flag);
+    }
+
+    @Test
+    public void deleteAllNewsArticleFailure() {
+        when(newsArticleRepository.deleteByUserId("Becky123")).thenReturn(0L);
+
+        assertThrows(
+        		NewsNotFoundException.class,
+                    () -> { articleNewsService.deleteAllNews("Becky123"); });
+    }
+
+    @Test
+    public void deleteAllNewsFailingKeepsTheUrlClaims() {
+        NewsUrlRegistry newsUrlRegistry = mock(NewsUrlRegistry.class);
+        articleNewsService.setNewsUrlRegistry(newsUrlRegistry);
+        when(newsArticleRepository.deleteByUserId("Becky123")).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> articleNewsService.deleteAllNews("Becky123"));
+        verify(newsUrlRegistry, never()).releaseAll(any());
+    }
+
+    @Test
+    public void updateNewsArticleSuccess() throws Exception {
+        News update = new News();
+        update.setAuthor("Becky123");
+        update.setContent("Match cancelled");
+        news.setContent("Match cancelled");
+        when(newsArticleRepository.updateArticle("Becky123", 1, update)).thenReturn(newsArticle);
+        News fetchedNews = articleNewsService.updateNews(update, news.getNewsId(), "Becky123");
+        assertEquals("Match cancelled", fetchedNews.getContent());
+        verify(newsArticleRepository, never()).save(any());
+        verify(newsRepository, never()).findById(any());
+    }
+
+    @Test
+    public void updateNewsArticleFailure() {
+        when(newsArticleRepository.updateArticle(eq("Becky123"), eq(1), any())).thenReturn(null);
+
+        assertThrows(
+        		NewsNotFoundException.class,
+                    () -> { articleNewsService.updateNews(news, news.getNewsId(), "Becky123"); });
+    }
+
+    @Test
+    public void getNewsArticleByNewsIdFailure() {
+        when(newsArticleRepository.findByUserIdAndNewsId("Becky123", 1)).thenReturn(Optional.empty());
+
+        assertThrows(
+        		NewsNotFoundException.class,
+                    () -> { articleNewsService.getNewsByNewsId("Becky123", news.getNewsId()); });
+    }
+
+    @Test
+    public void getAllNewsArticlesByUserId() {
+        List<NewsArticle> articles = new ArrayList<>();
+        articles.add(newsArticle);
+        when(newsArticleRepository.findByUserId("Becky123")).thenReturn(articles);
+        List<News> newslist1 = articleNewsService.getAllNewsByUserId("Becky123");
+        assertEquals(newsList, newslist1);
+    }
+
+    @Test
+    public void getNewsPageByUserId() {
+        when(newsRepository.findNewsPage("Becky123", null, null, 1)).thenReturn(newsList);
+        NewsPage page = newsServiceImpl.getNewsPageByUserId("Becky123", null, 1);
+        assertEquals(newsList, page.getNews());
+        assertEquals(NewsPage.cursorOf(news), page.getNext());
+
+        when(newsRepository.findNewsPage("Becky123", news.getPublishedAt(), news.getNewsId(), 1)).thenReturn(new ArrayList<>());
+        NewsPage lastPage = newsServiceImpl.getNewsPageByUserId("Becky123", page.getNext(), 1);
+        assertEquals(true, lastPage.getNews().isEmpty());
+        assertEquals(null, lastPage.getNext());
+    }
+
+    @Test
+    public void getNewsPageByUserIdInvalidCursor() {
+        assertThrows(
+        		IllegalArgumentException.class,
+                    () -> { newsServiceImpl.getNewsPageByUserId("Becky123", "not-a-cursor", 10); });
+        assertThrows(
+        		IllegalArgumentException.class,
+                    () -> { newsServiceImpl.getNewsPageByUserId("Becky123", null, 0); });
+    }
+
+    @Test
+    public void addAllNews() {
+        News duplicate = new News();
+        duplicate.setNewsId(1);
+        duplicate.setAuthor("Becky123");
+        News second = new News();
+        second.setNewsId(2);
+        second.setAuthor("Becky123");
+        News invalid = new News();
+        invalid.setNewsId(3);
+        Map<String, Set<Integer>> stored = new HashMap<>();
+        stored.put("Becky123", Collections.singleton(1));
+        when(newsRepository.findNewsIdsByUserIds(any())).thenReturn(stored);
+        when(newsRepository.pushNewsByUserIds(any(), anyInt())).thenReturn(new HashMap<>());
+
+        List<NewsIngestStatus> statuses = newsServiceImpl.addAllNews(Arrays.asList(duplicate, second, invalid).iterator());
+        assertEquals(NewsIngestStatus.Status.CONFLICT, statuses.get(0).getStatus());
+        assertEquals(NewsIngestStatus.Status.CREATED, statuses.get(1).getStatus());
+        assertEquals(NewsIngestStatus.Status.INVALID, statuses.get(2).getStatus());
+        verify(newsRepository).pushNewsByUserIds(Collections.singletonMap("Becky123", Collections.singletonList(second)), 0);
+    }
+
+    @Test
+    public void addAllNewsArticles() {
+        Map<Integer, Integer> failed = new HashMap<>();
+        failed.put(0, 11000);
+        when(newsArticleRepository.insertArticles(any())).thenReturn(failed);
+        News second = new News();
+        second.setNewsId(2);
+        second.setAuthor("Becky123");
+
+        List<NewsIngestStatus> statuses = articleNewsService.addAllNews(Arrays.asList(news, second).iterator());
+        assertEquals(NewsIngestStatus.Status.CONFLICT, statuses.get(0).getStatus());
+        assertEquals(NewsIngestStatus.Status.CREATED, statuses.get(1).getStatus());
+    }
+
+    @Test
+    public void searchNewsBuildsTheIndexOnce() {
+        when(newsRepository.streamNewsByUserId("Becky123")).thenAnswer(invocation -> newsList.stream());
+
+        assertEquals(newsList, newsServiceImpl.searchNews("Becky123", "csk rcb"));
+        assertEquals(newsList, newsServiceImpl.searchNews("Becky123", "IPL match"));
+        assertEquals(0, newsServiceImpl.searchNews("Becky123", "csk mi").size());
+        verify(newsRepository, times(1)).streamNewsByUserId("Becky123");
+    }
+
+    @Test
+    public void searchNewsFollowsUpdatesAndDeletes() throws Exception {
+        when(newsRepository.streamNewsByUserId("Becky123")).thenAnswer(invocation -> newsList.stream());
+        newsServiceImpl.searchNews("Becky123", "csk");
+
+        News updated = new News();
+        updated.setNewsId(1);
+        updated.setAuthor("Becky123");
+        updated.setTitle("IPLT20 Match - 02");
+        updated.setContent("MI vs KKR match scheduled for 8 PM");
+        when(newsRepository.updateNewsByNewsId("Becky123", 1, updated)).thenReturn(updated);
+        newsServiceImpl.updateNews(updated, 1, "Becky123");
+        assertEquals(0, newsServiceImpl.searchNews("Becky123", "csk").size());
+        assertEquals(Collections.singletonList(updated), newsServiceImpl.searchNews("Becky123", "kkr"));
+
+        when(newsRepository.deleteNewsByNewsId("Becky123", 1)).thenReturn(true);
+        newsServiceImpl.deleteNews("Becky123", 1);
+        assertEquals(0, newsServiceImpl.searchNews("Becky123", "kkr").size());
+        verify(newsRepository, times(1)).streamNewsByUserId("Becky123");
+    }
+
+    @Test
+    public void searchNewsWithoutWords() {
+        assertThrows(IllegalArgumentException.class, () -> newsServiceImpl.searchNews("Becky123", " - "));
+    }
+
+    @Test
+    public void writesAreReportedToTheReminderScheduler() throws Exception {
+        ReminderScheduler reminderScheduler = mock(ReminderScheduler.class);
+        newsServiceImpl.setReminderScheduler(reminderScheduler);
+        when(newsRepository.updateNewsByNewsId("Becky123", 1, news)).thenReturn(news);
+        when(newsRepository.deleteNewsByNewsId("Becky123", 1)).thenReturn(true);
+
+        newsServiceImpl.updateNews(news, 1, "Becky123");
+        newsServiceImpl.deleteNews("Becky123", 1);
+
+        verify(reminderScheduler, times(1)).schedule("Becky123", news);
+        verify(reminderScheduler, times(1)).cancel("Becky123", 1);
+    }
+
+    @Test
+    public void addNewsWithKnownUrlIsRejectedWithTheExistingNewsId() throws NewsAlreadyExistsException {
+        NewsUrlRegistry newsUrlRegistry = mock(NewsUrlRegistry.class);
+        newsServiceImpl.setNewsUrlRegistry(newsUrlRegistry);
+        when(newsUrlRegistry.claim(news)).thenReturn(7);
+
+        NewsAlreadyExistsException exception = assertThrows(NewsAlreadyExistsException.class,
+                () -> newsServiceImpl.addNews(news));
+        assertEquals(7, exception.getExistingNewsId());
+        verify(newsRepository, never()).pushNews(any(), any(), anyInt());
+    }
+
+    @Test
+    public void updateNewsWithUrlOfAnotherNewsIsRejected() {
+        NewsUrlRegistry newsUrlRegistry = mock(NewsUrlRegistry.class);
+        newsServiceImpl.setNewsUrlRegistry(newsUrlRegistry);
+        when(newsUrlRegistry.reclaim("Becky123", 1, news.getUrl())).thenReturn(7);
+
+        NewsAlreadyExistsException exception = assertThrows(NewsAlreadyExistsException.class,
+                () -> newsServiceImpl.updateNews(news, 1, "Becky123"));
+        assertEquals(7, exception.getExistingNewsId());
+        verify(newsRepository, never()).updateNewsByNewsId(any(), anyInt(), any());
+    }
+
+    @Test
+    public void addNewsReleasesTheUrlWhenTheNewsIsNotStored() throws NewsAlreadyExistsException {
+        NewsUrlRegistry newsUrlRegistry = mock(NewsUrlRegistry.class);
+        articleNewsService.setNewsUrlRegistry(newsUrlRegistry);
+        when(newsUrlRegistry.claim(news)).thenReturn(null);
+        when(newsArticleRepository.insert((NewsArticle) any())).thenThrow(DuplicateKeyException.class);
+
+        assertEquals(false, articleNewsService.addNews(news));
+        verify(newsUrlRegistry, times(1)).claim(news);
+        verify(newsUrlRegistry, times(1)).release(news);
+    }
+
+    @Test
+    public void addNewsWithoutNewsIdGetsAnAllocatedOne() throws NewsAlreadyExistsException {
+        BlockIdAllocator newsIdAllocator = mock(BlockIdAllocator.class);
+        when(newsIdAllocator.nextId()).thenReturn(1001);
+        articleNewsService.setNewsIdAllocator(newsIdAllocator);
+        when(newsArticleRepository.insert((NewsArticle) any())).thenReturn(newsArticle);
+
+        news.setNewsId(null);
+        assertEquals(true, articleNewsService.addNews(news));
+        assertEquals(1001, news.getNewsId());
+    }
+
+    @Test
+    public void addNewsAppendsToTheNewslistOfAnExistingUser() throws NewsAlreadyExistsException {
+        newsServiceImpl.setMaxNewsPerUser(100);
+        when(newsRepository.pushNews("Becky123", news, 100)).thenReturn(PushResult.PUSHED);
+        NewsSearchIndex newsSearchIndex = mock(NewsSearchIndex.class);
+        newsServiceImpl.setNewsSearchIndex(newsSearchIndex);
+
+        assertEquals(true, newsServiceImpl.addNews(news));
+        verify(newsRepository, never()).existsById(any());
+        verify(newsRepository, never()).insert((UserNews) any());
+        verify(newsSearchIndex).add("Becky123", news);
+        verify(newsSearchIndex, never()).invalidate(any());
+    }
+
+    @Test
+    public void addNewsEvictingOlderNewsInvalidatesTheSearchIndex() throws NewsAlreadyExistsException {
+        newsServiceImpl.setMaxNewsPerUser(100);
+        when(newsRepository.pushNews("Becky123", news, 100)).thenReturn(PushResult.PUSHED_AND_EVICTED);
+        NewsSearchIndex newsSearchIndex = mock(NewsSearchIndex.class);
+        newsServiceImpl.setNewsSearchIndex(newsSearchIndex);
+
+        assertEquals(true, newsServiceImpl.addNews(news));
+        verify(newsSearchIndex).invalidate("Becky123");
+        verify(newsSearchIndex, never()).add(any(), any());
+    }
+}
@@ -1,11 +1,32 @@
 package com.stackroute.newz;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stackroute.newz.idgen.BlockIdAllocator;
+import com.stackroute.newz.jwtfilter.ClaimsCache;
 import com.stackroute.newz.jwtfilter.JwtFilter;
+import com.stackroute.newz.jwtfilter.JwtTokenCodec;
+import com.stackroute.newz.model.NewsSource;
+import com.stackroute.newz.repository.IdCounterRepository;
+import com.stackroute.newz.repository.NewsSourceRepository;
+import com.stackroute.newz.trace.InMemorySpanExporter;
+import com.stackroute.newz.trace.LogSpanExporter;
+import com.stackroute.newz.trace.SpanExporter;
+import com.stackroute.newz.trace.TracingAspect;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 /*
  * The @SpringBootApplication annotation is equivalent to using @Configuration, @EnableAutoConfiguration 
@@ -15,6 +36,66 @@ import com.stackroute.newz.jwtfilter.JwtFilter;
 @SpringBootApplication
 public class NewsSourceServiceApplication {
 
+	/*
+	 * Define the bean for the cache of the news source list of each user, bounded in size
+	 * and age. Its hit and miss counts are published as the cache metrics of "newsSources".
+	 */
+
+    @Bean
+    public Cache<String, List<NewsSource>> newsSourceCache(@Value("${newssource.cache.size:10000}") long maxSize,
+    		@Value("${newssource.cache.ttl:600}") long ttlSeconds, MeterRegistry meterRegistry) {
+    	Cache<String, List<NewsSource>> cache = Caffeine.newBuilder()
+    			.maximumSize(maxSize)
+    			.expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+    			.recordStats()
+    			.build();
+    	return CaffeineCacheMetrics.monitor(meterRegistry, cache, "newsSources");
+    }
+
+	/*
+	 * Define the bean allocating the newsSourceId of the news sources added without one,
+	 * from blocks of ids leased from the "newsSource" counter. The counter is seeded here at
+	 * startup with the highest newsSourceId stored, read from the _id index.
+	 */
+
+    @Bean
+    public BlockIdAllocator newsSourceIdAllocator(IdCounterRepository idCounterRepository,
+    		NewsSourceRepository newsSourceRepository, @Value("${newssource.id.block-size:100}") int blockSize) {
+    	BlockIdAllocator newsSourceIdAllocator = new BlockIdAllocator(idCounterRepository, "newsSource", blockSize);
+    	newsSourceIdAllocator.seed(newsSourceRepository.findTopByOrderByNewsSourceIdDesc()
+    			.map(NewsSource::getNewsSourceId).orElse(0));
+    	return newsSourceIdAllocator;
+    }
+
+	/*
+	 * Define the bean for the cache of verified JWT claims shared by the JwtFilter. Its hit
+	 * and miss counts are published as the jwt.claims.cache counter, tagged by result.
+	 */
+
+    @Bean
+    public ClaimsCache claimsCache(@Value("${jwt.claims-cache.size:10000}") int maxSize,
+    		@Value("${jwt.claims-cache.max-ttl:300000}") long maxTtlMillis, MeterRegistry meterRegistry) {
+    	ClaimsCache claimsCache = new ClaimsCache(maxSize, maxTtlMillis);
+    	FunctionCounter.builder("jwt.claims.cache", claimsCache, ClaimsCache::getHits)
+    			.tag("result", "hit")
+    			.description("The JWT tokens whose claims were found in the cache")
+    			.register(meterRegistry);
+    	FunctionCounter.builder("jwt.claims.cache", claimsCache, ClaimsCache::getMisses)
+    			.tag("result", "miss")
+    			.description("The JWT tokens parsed and verified because their claims were not cached")
+    			.register(meterRegistry);
+    	return claimsCache;
+    }
+
+	/*
+	 * Define the bean verifying the JWT tokens, its signing key is derived once at startup.
+	 */
+
+    @Bean
+    public JwtTokenCodec jwtTokenCodec(@Value("${jwt.secret:secretkey}") String secret) {
+    	return new JwtTokenCodec(secret);
+    }
+
 	/*
 	 * Define the bean for Filter registration. Create a new FilterRegistrationBean
 	 * object and use setFilter() method to set new instance of JwtFilter object.
@@ -22,13 +103,32 @@ public class NewsSourceServiceApplication {
 	 */
 
     @Bean
-    public FilterRegistrationBean<JwtFilter> jwtFilter() {
+    public FilterRegistrationBean<JwtFilter> jwtFilter(ClaimsCache claimsCache, JwtTokenCodec jwtTokenCodec) {
     	final FilterRegistrationBean<JwtFilter> registrationBean = new FilterRegistrationBean<JwtFilter>();
-    	registrationBean.setFilter(new JwtFilter());
+    	registrationBean.setFilter(new JwtFilter(claimsCache, jwtTokenCodec));
     	registrationBean.addUrlPatterns("/api/*");
     	return registrationBean;
     }
     
+	/*
+	 * Define the beans tracing the service and repository calls, only when tracing.enabled
+	 * is true. The traces are written to the trace log file, or kept in memory when
+	 * tracing.exporter is memory.
+	 */
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+    public SpanExporter spanExporter(@Value("${tracing.exporter:file}") String exporter,
+    		@Value("${tracing.memory.capacity:1000}") int capacity) {
+    	return "memory".equals(exporter) ? new InMemorySpanExporter(capacity) : new LogSpanExporter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+    public TracingAspect tracingAspect(SpanExporter spanExporter) {
+    	return new TracingAspect(spanExporter);
+    }
+
 	/*
 	 * You need to run SpringApplication.run, because this method start whole spring
 	 * framework. Code below integrates your main() with SpringBoot
@@ -0,0 +1,76 @@
+package com.stackroute.newz.aspect;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * Times every call of the Spring Data repositories of the service, as the
+ * spring.data.repository.invocations timer tagged with the repository interface, the
+ * method, the state and the exception. The timers publish percentile histograms, so the
+ * p50 and p99 of each operation can be computed from the Prometheus scrape.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+	public static final String METRIC_NAME = "spring.data.repository.invocations";
+
+	private final MeterRegistry meterRegistry;
+	private final Map<Class<?>, Map<Method, Timer>> successTimers = new ConcurrentHashMap<>();
+
+	public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+	public Object aroundRepositoryMethods(ProceedingJoinPoint joinPoint) throws Throwable {
+		long start = System.nanoTime();
+		try {
+			Object result = joinPoint.proceed();
+			successTimer(joinPoint).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return result;
+		} catch (Throwable ex) {
+			timer(joinPoint, "ERROR", ex.getClass().getSimpleName())
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			throw ex;
+		}
+	}
+
+	/* The success timer of a repository method is looked up once and kept. */
+	private Timer successTimer(ProceedingJoinPoint joinPoint) {
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		return successTimers.computeIfAbsent(joinPoint.getTarget().getClass(), type -> new ConcurrentHashMap<>())
+				.computeIfAbsent(method, m -> timer(joinPoint, "SUCCESS", "None"));
+	}
+
+	private Timer timer(ProceedingJoinPoint joinPoint, String state, String exception) {
+		return Timer.builder(METRIC_NAME)
+				.tag("repository", repositoryOf(joinPoint.getTarget().getClass()))
+				.tag("method", joinPoint.getSignature().getName())
+				.tag("state", state)
+				.tag("exception", exception)
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+	}
+
+	/* The repository beans are proxies, the repository is the first interface of the service. */
+	private static String repositoryOf(Class<?> type) {
+		for (Class<?> repositoryInterface : type.getInterfaces()) {
+			if (repositoryInterface.getName().startsWith("com.stackroute.")) {
+				return repositoryInterface.getSimpleName();
+			}
+		}
+		return type.getSimpleName();
+	}
+}
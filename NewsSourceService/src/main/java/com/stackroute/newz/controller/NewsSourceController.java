@@ -62,14 +62,14 @@ public class NewsSourceController {
 		try {
 			boolean isNewsSourceExists = newsSourceService.addNewsSource(newssource);
 				if(isNewsSourceExists == true) {
-				logger.info("In controller - {}", "News Source created: " +newssource);
+				logger.info("In controller - News Source ID {} created for user ID {}.", newssource.getNewsSourceId(), newssource.getNewsSourceCreatedBy());
 				return new ResponseEntity<NewsSource>(newssource, HttpStatus.CREATED);
 			}
 		} 
 		catch(Exception e) {
 			return new ResponseEntity<NewsSource>(HttpStatus.CONFLICT);
 		}
-		logger.info("In controller - {}", "News Source ID "+ newssource.getNewsSourceId() + " already exists.");
+		logger.info("In controller - News Source ID {} already exists.", newssource.getNewsSourceId());
 		return new ResponseEntity<NewsSource>(HttpStatus.CONFLICT);
 	}
 
@@ -92,13 +92,13 @@ public class NewsSourceController {
 		try {
 			boolean isnewsSourceDeleted = newsSourceService.deleteNewsSource(newssourceId);
 			if(isnewsSourceDeleted == true) {
-				logger.info("In controller - {}", "News Source with ID: "+newssourceId+" deleted.");
+				logger.info("In controller - News Source with ID: {} deleted.", newssourceId);
 				return new ResponseEntity<NewsSource>(HttpStatus.OK);
 			}
 		} catch (Exception e) {
 			return new ResponseEntity<NewsSource>(HttpStatus.NOT_FOUND);
 		}
-		logger.info("In controller - {}", "News Source ID "+ newssourceId + " not found.");
+		logger.info("In controller - News Source ID {} not found.", newssourceId);
 		return new ResponseEntity<NewsSource>(HttpStatus.NOT_FOUND);
 	}
 	
@@ -121,13 +121,13 @@ public class NewsSourceController {
 		try {
 			NewsSource newsSourceUpdated = newsSourceService.updateNewsSource(newssource, newssourceId);
 			if(newsSourceUpdated != null) {
-				logger.info("In controller - {}", "News Source Updated: " +newsSourceUpdated);
+				logger.info("In controller - News Source ID {} updated.", newssourceId);
 				return new ResponseEntity<NewsSource>(newsSourceUpdated, HttpStatus.OK);
 			}
 		} catch (NewsSourceNotFoundException e) {
 			return new ResponseEntity<NewsSource>(HttpStatus.NOT_FOUND);
 		}
-		logger.info("In controller - {}", "User ID "+ newssource.getNewsSourceCreatedBy() + " not Found.");
+		logger.info("In controller - User ID {} not Found.", newssource.getNewsSourceCreatedBy());
 		return new ResponseEntity<NewsSource>(HttpStatus.NOT_FOUND);
 	}
 	
@@ -150,13 +150,13 @@ public class NewsSourceController {
 		try {
 			newsSourceById = newsSourceService.getNewsSourceById(userId, newssourceId);
 			if(newsSourceById != null) {
-				logger.info("In controller - {}", "News Source Retrieved: " +newsSourceById);
+				logger.info("In controller - News Source ID {} retrieved for user ID {}.", newssourceId, userId);
 				return new ResponseEntity<NewsSource>(HttpStatus.OK);
 			}
 		} catch (NewsSourceNotFoundException e) {
 			return new ResponseEntity<NewsSource>(HttpStatus.NOT_FOUND);
 		}
-		logger.info("In controller - {}", "User ID "+ userId+ " not found.");
+		logger.info("In controller - User ID {} not found.", userId);
 		return new ResponseEntity<NewsSource>(HttpStatus.NOT_FOUND);
 	}
 	
@@ -177,13 +177,13 @@ public class NewsSourceController {
 		try {
 			allNewsSource = newsSourceService.getAllNewsSourceByUserId(userId);
 			if(allNewsSource != null) {
-				logger.info("In controller - {}", "News Sources Retrieved: " +allNewsSource);
+				logger.info("In controller - Number of News Sources for user ID {}: {}", userId, allNewsSource.size());
 				return new ResponseEntity<List<NewsSource>>(HttpStatus.OK);
 			}
 		} catch (Exception e) {
 			return new ResponseEntity<List<NewsSource>>(HttpStatus.NOT_FOUND);
 		}
-		logger.info("In controller - {}", "User ID "+ userId + " not found.");
+		logger.info("In controller - User ID {} not found.", userId);
 		return new ResponseEntity<List<NewsSource>>(HttpStatus.NOT_FOUND);
 	}
     
@@ -13,7 +13,6 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.web.filter.GenericFilterBean;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 
 /* This class implements the custom filter by extending org.springframework.web.filter.GenericFilterBean.  
  * Override the doFilter method with ServletRequest, ServletResponse and FilterChain.
@@ -22,12 +21,25 @@ import io.jsonwebtoken.Jwts;
 
 public class JwtFilter extends GenericFilterBean {
 
+	private final ClaimsCache claimsCache;
+	private final JwtTokenCodec jwtTokenCodec;
+
+	public JwtFilter() {
+		this(new ClaimsCache(), new JwtTokenCodec());
+	}
+
+	public JwtFilter(ClaimsCache claimsCache, JwtTokenCodec jwtTokenCodec) {
+		this.claimsCache = claimsCache;
+		this.jwtTokenCodec = jwtTokenCodec;
+	}
+
 		/*
 	 * Override the doFilter method of GenericFilterBean.
      * Retrieve the "authorization" header from the HttpServletRequest object.
      * Retrieve the "Bearer" token from "authorization" header.
      * If authorization header is invalid, throw Exception with message. 
-     * Parse the JWT token and get claims from the token using the secret key
+     * Parse the JWT token and get claims from the token using the secret key,
+     * unless the claims of that token are already in the claims cache
      * Set the request attribute with the retrieved claims
      * Call FilterChain object's doFilter() method */
 	
@@ -48,10 +60,7 @@ public class JwtFilter extends GenericFilterBean {
     	}
     	
     	final String token = authHeader.substring(7);
-    	final Claims claims = Jwts.parser()
-    			.setSigningKey("secretkey")
-    			.parseClaimsJws(token)
-    			.getBody();
+    	final Claims claims = claimsCache.get(token, jwtTokenCodec::parse);
     	
     	request.setAttribute("claims", claims);
     	chain.doFilter(req, resp);
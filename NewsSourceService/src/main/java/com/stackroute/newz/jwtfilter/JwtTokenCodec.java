@@ -0,0 +1,40 @@
+package com.stackroute.newz.jwtfilter;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+
+/*
+ * Verifies the JWT tokens issued by the AuthenticationService. The signing key is derived
+ * from the secret once, the same way Jwts.parser().setSigningKey(String) derives it, and
+ * the parser is built once and shared, as parsing does not change its state.
+ */
+public class JwtTokenCodec {
+
+	public static final String DEFAULT_SECRET = "secretkey";
+
+	private final JwtParser parser;
+
+	public JwtTokenCodec() {
+		this(DEFAULT_SECRET);
+	}
+
+	public JwtTokenCodec(String secret) {
+		this.parser = Jwts.parser().setSigningKey(signingKey(secret));
+	}
+
+	/* The secret is the base64 encoded HS256 key. */
+	public static SecretKey signingKey(String secret) {
+		return new SecretKeySpec(TextCodec.BASE64.decode(secret), SignatureAlgorithm.HS256.getJcaName());
+	}
+
+	/* Returns the claims of the token, throws a JwtException when the token is invalid or expired. */
+	public Claims parse(String token) {
+		return parser.parseClaimsJws(token).getBody();
+	}
+}
@@ -0,0 +1,50 @@
+package com.stackroute.newz.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/*
+ * Please note that this class is annotated with @Document annotation
+ * @Document identifies a domain object to be persisted to MongoDB.
+ *
+ * IdCounter holds the last id leased from the sequence called name. Every instance of
+ * the service leases its ids from it a block at a time.
+ */
+@Document(collection = "idCounter")
+public class IdCounter {
+
+	@Id
+	private String name;
+	private long value;
+
+	public IdCounter() {
+		super();
+	}
+
+	public IdCounter(String name, long value) {
+		super();
+		this.name = name;
+		this.value = value;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public long getValue() {
+		return value;
+	}
+
+	public void setValue(long value) {
+		this.value = value;
+	}
+
+	@Override
+	public String toString() {
+		return "IdCounter [name=" + name + ", value=" + value + "]";
+	}
+}
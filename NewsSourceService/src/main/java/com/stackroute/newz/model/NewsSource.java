@@ -3,6 +3,7 @@ package com.stackroute.newz.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -12,6 +13,7 @@ import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
  * Please note that this class is annotated with @Document annotation
  * @Document identifies a domain object to be persisted to MongoDB.
  *  
+ * The news sources of a user are looked up by newsSourceCreatedBy, hence the index.
  */
 @Document
 public class NewsSource {
@@ -29,6 +31,7 @@ public class NewsSource {
 	private int newsSourceId;
 	private String newsSourceName;
 	private String newsSourceDesc;
+	@Indexed
 	private String newsSourceCreatedBy;
 	@JsonSerialize(using = ToStringSerializer.class)
 	private LocalDateTime newsSourceCreationDate;
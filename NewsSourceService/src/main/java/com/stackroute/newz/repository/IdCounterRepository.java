@@ -0,0 +1,14 @@
+package com.stackroute.newz.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.stackroute.newz.model.IdCounter;
+
+/*
+* This class is implementing the MongoRepository interface for IdCounter.
+* Blocks of ids are leased through IdCounterRepositoryCustom.
+* */
+
+public interface IdCounterRepository extends MongoRepository<IdCounter, String>, IdCounterRepositoryCustom {
+
+}
@@ -0,0 +1,13 @@
+package com.stackroute.newz.repository;
+
+/*
+ * Custom operations of IdCounterRepository, implemented in IdCounterRepositoryImpl with
+ * MongoTemplate.
+ */
+public interface IdCounterRepositoryCustom {
+
+	long leaseBlock(String name, int blockSize);
+
+	void raiseTo(String name, long value);
+
+}
@@ -1,6 +1,7 @@
 package com.stackroute.newz.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 
@@ -13,4 +14,8 @@ import com.stackroute.newz.model.NewsSource;
 */
 public interface NewsSourceRepository extends MongoRepository<NewsSource, Integer> {
 	List<NewsSource> findAllNewsSourceByNewsSourceCreatedBy(String newsSourceCreatedBy);
+
+	Optional<NewsSource> findByNewsSourceIdAndNewsSourceCreatedBy(int newsSourceId, String newsSourceCreatedBy);
+
+	Optional<NewsSource> findTopByOrderByNewsSourceIdDesc();
 }
@@ -1,11 +1,17 @@
 package com.stackroute.newz.service;
 
+import java.util.Collections;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stackroute.newz.idgen.BlockIdAllocator;
 import com.stackroute.newz.model.NewsSource;
 import com.stackroute.newz.repository.NewsSourceRepository;
 import com.stackroute.newz.util.exception.NewsSourceNotFoundException;
@@ -29,69 +35,93 @@ public class NewsSourceServiceImpl implements NewsSourceService {
 	 * object using the new keyword.
 	 */
 	private NewsSourceRepository newsSourceRepo;
+	/* Same bounds as the newsSourceCache bean defaults, until the bean is set. */
+	private Cache<String, List<NewsSource>> newsSourceCache = Caffeine.newBuilder()
+			.maximumSize(10000)
+			.expireAfterWrite(600, TimeUnit.SECONDS)
+			.build();
+	private BlockIdAllocator newsSourceIdAllocator;
 	@Autowired
 	public NewsSourceServiceImpl(NewsSourceRepository newsSourceRepository) {
 		this.newsSourceRepo = newsSourceRepository;
 	}
+
+	/*
+	 * The news source list of a user read by getAllNewsSourceByUserId is kept in this
+	 * cache, adding, updating or deleting a news source invalidates the list of its user.
+	 */
+	@Autowired
+	public void setNewsSourceCache(Cache<String, List<NewsSource>> newsSourceCache) {
+		this.newsSourceCache = newsSourceCache;
+	}
+
+	/* Allocates the newsSourceId of the news sources added without one, when it is set. */
+	@Autowired
+	public void setNewsSourceIdAllocator(BlockIdAllocator newsSourceIdAllocator) {
+		this.newsSourceIdAllocator = newsSourceIdAllocator;
+	}
 	/*
-	 * This method should be used to save a newsSource.
+	 * This method should be used to save a newsSource. A newsSource without newsSourceId
+	 * gets one from the allocator. An existing newsSourceId makes the insert fail with a
+	 * duplicate key, so it is not looked up first.
 	 */
 
 	@Override
 	public boolean addNewsSource(NewsSource newsSource) {
-		Boolean newsSourceById = newsSourceRepo.existsById(newsSource.getNewsSourceId());
-		if(newsSourceById == false) {
+		if(newsSource.getNewsSourceId() <= 0 && newsSourceIdAllocator != null) {
+			newsSource.setNewsSourceId(newsSourceIdAllocator.nextId());
+		}
+		try {
 			NewsSource newsSourceAdded = newsSourceRepo.insert(newsSource);
-			if(newsSourceAdded != null)
-				return true;
+			newsSourceCache.invalidate(newsSource.getNewsSourceCreatedBy());
+			return newsSourceAdded != null;
+		}
+		catch(DuplicateKeyException ex) {
+			return false;
 		}
-		return false;
 	}
 
 	/* This method should be used to delete an existing newsSource. */
 
 	@Override
 	public boolean deleteNewsSource(int newsSourceId) {
-		if(newsSourceRepo.findById(newsSourceId) != null) {
-			newsSourceRepo.deleteById(newsSourceId);
-			return true;
+		Optional<NewsSource> newsSourceById = newsSourceRepo.findById(newsSourceId);
+		if(newsSourceById == null || !newsSourceById.isPresent()) {
+			return false;
 		}
-		return false;
+		newsSourceRepo.deleteById(newsSourceId);
+		newsSourceCache.invalidate(newsSourceById.get().getNewsSourceCreatedBy());
+		return true;
 	}
 
 	/* This method should be used to update an existing newsSource. */
 	
 	@Override
 	public NewsSource updateNewsSource(NewsSource newsSource, int newsSourceId) throws NewsSourceNotFoundException {
-		NewsSource newsSourceToUpdate = newsSourceRepo.findById(newsSourceId).get();
-		if(newsSourceToUpdate != null) {
+		Optional<NewsSource> newsSourceById = newsSourceRepo.findById(newsSourceId);
+		if(newsSourceById != null && newsSourceById.isPresent()) {
+			NewsSource newsSourceToUpdate = newsSourceById.get();
+			newsSourceCache.invalidate(newsSourceToUpdate.getNewsSourceCreatedBy());
 			newsSourceToUpdate.setNewsSourceName(newsSource.getNewsSourceName());
 			newsSourceToUpdate.setNewsSourceCreatedBy(newsSource.getNewsSourceCreatedBy());
 			newsSourceToUpdate.setNewsSourceDesc(newsSource.getNewsSourceDesc());
 			newsSourceRepo.save(newsSourceToUpdate);
+			newsSourceCache.invalidate(newsSourceToUpdate.getNewsSourceCreatedBy());
 			return newsSourceToUpdate;
 		}
 		throw new NewsSourceNotFoundException("News Source not Found in DB.");
 	}
 
-	/* This method should be used to get a specific newsSource for an user. */
+	/*
+	 * This method should be used to get a specific newsSource for an user. It is a point
+	 * query on the id and the creator of the newsSource.
+	 */
 
 	@Override
 	public NewsSource getNewsSourceById(String userId, int newsSourceId) throws NewsSourceNotFoundException {
-		try {
-			System.out.println(" ############# IN getNewsSourceById: "+userId+ ", "+newsSourceId);
-			List<NewsSource> newsSourceList = newsSourceRepo.findAllNewsSourceByNewsSourceCreatedBy(userId);
-			System.out.println(" ############# newsSourceList: "+newsSourceList);
-			if(!newsSourceList.isEmpty()) {
-				for(NewsSource newsSource: newsSourceList) {
-					if(newsSource.getNewsSourceId() == newsSourceId) {
-						return newsSource;
-					}
-				}
-			}
-		}
-		catch(NoSuchElementException ex) {
-			return null;
+		Optional<NewsSource> newsSource = newsSourceRepo.findByNewsSourceIdAndNewsSourceCreatedBy(newsSourceId, userId);
+		if(newsSource.isPresent()) {
+			return newsSource.get();
 		}
 		throw new NewsSourceNotFoundException("News Source not Found in DB.");
 	}
@@ -100,7 +130,8 @@ public class NewsSourceServiceImpl implements NewsSourceService {
 
 	@Override
 	public List<NewsSource> getAllNewsSourceByUserId(String createdBy) {
-		return newsSourceRepo.findAllNewsSourceByNewsSourceCreatedBy(createdBy);
+		return newsSourceCache.get(createdBy,
+				userId -> Collections.unmodifiableList(newsSourceRepo.findAllNewsSourceByNewsSourceCreatedBy(userId)));
 	}
 
 }
@@ -0,0 +1,41 @@
+package com.stackroute.newz.trace;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/*
+ * Keeps the most recent traces in memory, the oldest trace is discarded once the
+ * capacity is reached.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+	private final int capacity;
+	private final Deque<Span> traces;
+
+	public InMemorySpanExporter(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity of the in-memory traces should be positive.");
+		}
+		this.capacity = capacity;
+		this.traces = new ArrayDeque<>(capacity);
+	}
+
+	@Override
+	public synchronized void export(Span root) {
+		if (traces.size() == capacity) {
+			traces.removeFirst();
+		}
+		traces.addLast(root);
+	}
+
+	/* Returns the kept traces, oldest first. */
+	public synchronized List<Span> getTraces() {
+		return new ArrayList<>(traces);
+	}
+
+	public synchronized void clear() {
+		traces.clear();
+	}
+}
@@ -79,6 +79,15 @@ public class NewsSourceRepositoryTest {
         assertThat(1, is(fetchedNewssource.getNewsSourceId()));
     }
 
+    @Test
+    public void getNewssourceByIdAndCreatorTest() {
+
+    	newsSourceRepository.insert(newsSource);
+    	NewsSource fetchedNewssource = newsSourceRepository.findByNewsSourceIdAndNewsSourceCreatedBy(1, "Jhon123").get();
+        assertThat(1, is(fetchedNewssource.getNewsSourceId()));
+        assertThat(false, is(newsSourceRepository.findByNewsSourceIdAndNewsSourceCreatedBy(1, "Becky123").isPresent()));
+    }
+
     @Test
     public void getAllNewssourceByUserId() {
 
@@ -2,25 +2,30 @@ package com.stackroute.newz.test.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DuplicateKeyException;
 
+import com.stackroute.newz.idgen.BlockIdAllocator;
 import com.stackroute.newz.model.NewsSource;
 import com.stackroute.newz.repository.NewsSourceRepository;
 import com.stackroute.newz.service.NewsSourceServiceImpl;
 import com.stackroute.newz.util.exception.NewsSourceNotFoundException;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.Optional;
 
 public class NewsSourceServiceImplTest {
@@ -87,6 +92,14 @@ public class NewsSourceServiceImplTest {
         assertThat(false, is(flag));
     }
 
+    @Test
+    public void deleteNewssourceNotFound() throws Exception {
+        when(newsSourceRepository.findById(newsSource.getNewsSourceId())).thenReturn(Optional.empty());
+        boolean flag = newsSourceServiceImpl.deleteNewsSource(newsSource.getNewsSourceId());
+        assertThat(false, is(flag));
+        verify(newsSourceRepository, never()).deleteById(newsSource.getNewsSourceId());
+    }
+
 
     @Test
     public void updateNewssourceTestSuccess() throws NewsSourceNotFoundException {
@@ -106,13 +119,20 @@ public class NewsSourceServiceImplTest {
 
     }
 
+    @Test
+    public void updateNewssourceNotFound() {
+        when(newsSourceRepository.findById(newsSource.getNewsSourceId())).thenReturn(Optional.empty());
+        assertThrows(NewsSourceNotFoundException.class,
+                () -> newsSourceServiceImpl.updateNewsSource(newsSource, newsSource.getNewsSourceId()));
+        verify(newsSourceRepository, never()).save(newsSource);
+    }
+
 
     @Test
     public void getNewssourceByIdTestSuccess() throws NewsSourceNotFoundException {
 
-        when(newsSourceRepository.findAllNewsSourceByNewsSourceCreatedBy("Becky123")).thenReturn(allNewssource);
+        when(newsSourceRepository.findByNewsSourceIdAndNewsSourceCreatedBy(1, "Becky123")).thenReturn(options);
         NewsSource fetchedNewssource = newsSourceServiceImpl.getNewsSourceById("Becky123",1);
-        System.out.println("Orange "+allNewssource);
         assertNotNull(fetchedNewssource);
 
         
@@ -120,9 +140,9 @@ public class NewsSourceServiceImplTest {
 
     @Test
     public void getNewssourceByIdTestFailure() throws NewsSourceNotFoundException {
-    	when(newsSourceRepository.findAllNewsSourceByNewsSourceCreatedBy("Becky123")).thenThrow(NoSuchElementException.class);
-    	NewsSource fetchedNewssource = newsSourceServiceImpl.getNewsSourceById(newsSource.getNewsSourceCreatedBy(),newsSource.getNewsSourceId());
-        assertNull(fetchedNewssource);
+    	when(newsSourceRepository.findByNewsSourceIdAndNewsSourceCreatedBy(1, "Becky123")).thenReturn(Optional.empty());
+    	assertThrows(NewsSourceNotFoundException.class,
+    			() -> newsSourceServiceImpl.getNewsSourceById(newsSource.getNewsSourceCreatedBy(),newsSource.getNewsSourceId()));
 
     }
 
@@ -136,4 +156,65 @@ public class NewsSourceServiceImplTest {
         assertThat(fetchedNewssource, is(allNewssource));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getAllNewssourceByUserIdFromCache() {
+        when(newsSourceRepository.findAllNewsSourceByNewsSourceCreatedBy("Becky123")).thenReturn(allNewssource);
+
+        newsSourceServiceImpl.getAllNewsSourceByUserId("Becky123");
+        List<NewsSource> fetchedNewssource = newsSourceServiceImpl.getAllNewsSourceByUserId("Becky123");
+        assertThat(fetchedNewssource, is(allNewssource));
+        verify(newsSourceRepository, times(1)).findAllNewsSourceByNewsSourceCreatedBy("Becky123");
+    }
+
+    @Test
+    public void addNewssourceInvalidatesCache() {
+        when(newsSourceRepository.findAllNewsSourceByNewsSourceCreatedBy("Becky123")).thenReturn(allNewssource);
+        when(newsSourceRepository.insert(newsSource)).thenReturn(newsSource);
+
+        newsSourceServiceImpl.getAllNewsSourceByUserId("Becky123");
+        newsSourceServiceImpl.addNewsSource(newsSource);
+        newsSourceServiceImpl.getAllNewsSourceByUserId("Becky123");
+        verify(newsSourceRepository, times(2)).findAllNewsSourceByNewsSourceCreatedBy("Becky123");
+    }
+
+    @Test
+    public void updateNewssourceInvalidatesCache() throws NewsSourceNotFoundException {
+        when(newsSourceRepository.findAllNewsSourceByNewsSourceCreatedBy("Becky123")).thenReturn(allNewssource);
+        when(newsSourceRepository.findById(newsSource.getNewsSourceId())).thenReturn(options);
+
+        newsSourceServiceImpl.getAllNewsSourceByUserId("Becky123");
+        newsSourceServiceImpl.updateNewsSource(newsSource, newsSource.getNewsSourceId());
+        newsSourceServiceImpl.getAllNewsSourceByUserId("Becky123");
+        verify(newsSourceRepository, times(2)).findAllNewsSourceByNewsSourceCreatedBy("Becky123");
+    }
+
+    @Test
+    public void deleteNewssourceInvalidatesCache() {
+        when(newsSourceRepository.findAllNewsSourceByNewsSourceCreatedBy("Becky123")).thenReturn(allNewssource);
+        when(newsSourceRepository.findById(newsSource.getNewsSourceId())).thenReturn(options);
+
+        newsSourceServiceImpl.getAllNewsSourceByUserId("Becky123");
+        newsSourceServiceImpl.deleteNewsSource(newsSource.getNewsSourceId());
+        newsSourceServiceImpl.getAllNewsSourceByUserId("Becky123");
+        verify(newsSourceRepository, times(2)).findAllNewsSourceByNewsSourceCreatedBy("Becky123");
+    }
+
+    @Test
+    public void createNewssourceWithExistingIdFails() {
+        when(newsSourceRepository.insert(newsSource)).thenThrow(DuplicateKeyException.class);
+        assertThat(newsSourceServiceImpl.addNewsSource(newsSource), is(false));
+    }
+
+    @Test
+    public void createNewssourceWithoutIdGetsAnAllocatedOne() {
+        BlockIdAllocator newsSourceIdAllocator = mock(BlockIdAllocator.class);
+        when(newsSourceIdAllocator.nextId()).thenReturn(101);
+        newsSourceServiceImpl.setNewsSourceIdAllocator(newsSourceIdAllocator);
+        when(newsSourceRepository.insert(newsSource)).thenReturn(newsSource);
+
+        newsSource.setNewsSourceId(0);
+        assertThat(newsSourceServiceImpl.addNewsSource(newsSource), is(true));
+        assertThat(newsSource.getNewsSourceId(), is(101));
+    }
+}
@@ -0,0 +1,77 @@
+package com.stackroute.newz.test.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.stackroute.newz.model.NewsSource;
+import com.stackroute.newz.repository.NewsSourceRepository;
+import com.stackroute.newz.service.NewsSourceService;
+import com.stackroute.newz.service.NewsSourceServiceImpl;
+import com.stackroute.newz.trace.InMemorySpanExporter;
+import com.stackroute.newz.trace.Span;
+import com.stackroute.newz.trace.TracingAspect;
+import com.stackroute.newz.util.exception.NewsSourceNotFoundException;
+
+public class TracingAspectTest {
+
+    private InMemorySpanExporter spanExporter;
+    private NewsSourceRepository newsSourceRepository;
+    private NewsSourceService tracedNewsSourceService;
+
+    @BeforeEach
+    public void setUp() {
+        spanExporter = new InMemorySpanExporter(10);
+        TracingAspect tracingAspect = new TracingAspect(spanExporter);
+        newsSourceRepository = mock(NewsSourceRepository.class);
+
+        AspectJProxyFactory repositoryProxyFactory = new AspectJProxyFactory(newsSourceRepository);
+        repositoryProxyFactory.addAspect(tracingAspect);
+        NewsSourceRepository tracedRepository = repositoryProxyFactory.getProxy();
+
+        AspectJProxyFactory serviceProxyFactory = new AspectJProxyFactory(new NewsSourceServiceImpl(tracedRepository));
+        serviceProxyFactory.addAspect(tracingAspect);
+        tracedNewsSourceService = serviceProxyFactory.getProxy();
+    }
+
+    @Test
+    public void serviceCallIsTracedWithRepositorySpans() throws NewsSourceNotFoundException {
+        when(newsSourceRepository.findByNewsSourceIdAndNewsSourceCreatedBy(1, "Becky123"))
+                .thenReturn(Optional.of(new NewsSource()));
+        tracedNewsSourceService.getNewsSourceById("Becky123", 1);
+
+        assertEquals(1, spanExporter.getTraces().size());
+        Span root = spanExporter.getTraces().get(0);
+        assertEquals("NewsSourceService.getNewsSourceById", root.getName());
+        assertNull(root.getParent());
+        assertEquals(1, root.getChildren().size());
+        Span repositorySpan = root.getChildren().get(0);
+        assertEquals("NewsSourceRepository.findByNewsSourceIdAndNewsSourceCreatedBy", repositorySpan.getName());
+        assertEquals(root.getTraceId(), repositorySpan.getTraceId());
+    }
+
+    @Test
+    public void failedServiceCallIsTracedWithItsException() {
+        when(newsSourceRepository.findByNewsSourceIdAndNewsSourceCreatedBy(1, "Becky123")).thenReturn(Optional.empty());
+        assertThrows(NewsSourceNotFoundException.class, () -> tracedNewsSourceService.getNewsSourceById("Becky123", 1));
+        tracedNewsSourceService.getAllNewsSourceByUserId("Becky123");
+
+        assertEquals(2, spanExporter.getTraces().size());
+        assertEquals("NewsSourceNotFoundException", spanExporter.getTraces().get(0).getError());
+        assertNull(spanExporter.getTraces().get(0).getChildren().get(0).getError());
+        assertNull(spanExporter.getTraces().get(1).getError());
+    }
+
+    @Test
+    public void inMemoryExporterRejectsZeroCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemorySpanExporter(0));
+    }
+}
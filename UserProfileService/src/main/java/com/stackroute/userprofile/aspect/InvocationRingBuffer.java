@@ -0,0 +1,91 @@
+package com.stackroute.userprofile.aspect;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Bounded multi-producer, single-consumer ring buffer of controller invocations, after the
+ * bounded queue of Dmitry Vyukov. A producer claims a slot with a CAS on the tail and
+ * publishes it through the sequence of the slot. The slots are preallocated arrays, so
+ * recording an invocation does not allocate. When the buffer is full the invocation is
+ * dropped and counted, the request thread never waits for the consumer.
+ */
+public class InvocationRingBuffer {
+
+	/* Receives the drained invocations on the consumer thread. */
+	public interface Sink {
+		void accept(Object source, int status, long latencyNanos);
+	}
+
+	private final int mask;
+	private final AtomicLongArray sequences;
+	private final Object[] sources;
+	private final int[] statuses;
+	private final long[] latencies;
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private long head;
+
+	/* The capacity is rounded up to a power of two. */
+	public InvocationRingBuffer(int capacity) {
+		int size = 2;
+		while (size < capacity) {
+			size <<= 1;
+		}
+		this.mask = size - 1;
+		this.sequences = new AtomicLongArray(size);
+		this.sources = new Object[size];
+		this.statuses = new int[size];
+		this.latencies = new long[size];
+		for (int index = 0; index < size; index++) {
+			sequences.set(index, index);
+		}
+	}
+
+	/* Records an invocation, returns false when the buffer is full and the invocation is dropped. */
+	public boolean offer(Object source, int status, long latencyNanos) {
+		long position = tail.get();
+		while (true) {
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					sources[index] = source;
+					statuses[index] = status;
+					latencies[index] = latencyNanos;
+					sequences.lazySet(index, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				dropped.incrementAndGet();
+				return false;
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/* Hands the recorded invocations to the sink, must only be called from a single thread. */
+	public int drain(Sink sink) {
+		int drained = 0;
+		while (true) {
+			int index = (int) head & mask;
+			if (sequences.get(index) != head + 1) {
+				return drained;
+			}
+			Object source = sources[index];
+			int status = statuses[index];
+			long latencyNanos = latencies[index];
+			sources[index] = null;
+			sequences.lazySet(index, head + mask + 1);
+			head++;
+			sink.accept(source, status, latencyNanos);
+			drained++;
+		}
+	}
+
+	public long getDropped() {
+		return dropped.get();
+	}
+}
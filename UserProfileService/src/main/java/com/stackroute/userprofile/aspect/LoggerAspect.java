@@ -1,51 +1,108 @@
 package com.stackroute.userprofile.aspect;
-/* Annotate this class with @Aspect and @Component */
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.After;
-import org.aspectj.lang.annotation.AfterReturning;
-import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+/* Annotate this class with @Aspect and @Component */
 @Aspect
 @Component
 public class LoggerAspect {
+
 	/*
-	 * Write loggers for each of the methods of User controller, any particular
-	 * method will have all the four aspectJ annotation
-	 * (@Before, @After, @AfterReturning, @AfterThrowing).
+	 * Write loggers for each of the methods of UserProfileController with a single @Around advice.
+	 * The request thread only records the join point, the status and the latency of a
+	 * sampled invocation into a ring buffer, a background thread formats and writes the log
+	 * lines. Failed invocations are always recorded and the result is never formatted.
 	 */
+	private static final int FAILED = -1;
+
 	private final Logger logger = LoggerFactory.getLogger(this.getClass());
-	
-	@Before(value="execution(* com.stackroute.userprofile.controller..*(..)))")
-	  public void beforeAllMethods(JoinPoint joinPoint) throws Throwable 
-	  {
-	    joinPoint.getSignature().getName();
-	    logger.info("{} returned with value {}", joinPoint);
-	  }
-	
-	@After("execution(* com.stackroute.userprofile.controller..*(..)))")
-	  public void afterAllMethods(JoinPoint joinPoint) throws Throwable 
-	  {
-	    joinPoint.getSignature().getName();
-	    logger.info("after execution of {}", joinPoint);
-	  }
-	
-	@AfterReturning(value="execution(* com.stackroute.userprofile.controller..*(..)))", returning = "result")
-	  public void afterReturningAllMethods(JoinPoint joinPoint, Object result) throws Throwable 
-	  {
-	    joinPoint.getSignature().getName();
-	    logger.info("{} returned with value {}", joinPoint, result);
-	  }
-	
-	@AfterThrowing("execution(* com.stackroute.userprofile.controller..*(..)))")
-	  public void afterThrowingAllMethods(JoinPoint joinPoint) throws Throwable 
-	  {
-	    joinPoint.getSignature().getName();
-	  }
+	private final InvocationRingBuffer buffer;
+	private final double sampleRate;
+	private final long drainIntervalMillis;
+	private volatile boolean running;
+	private Thread drainThread;
+	private long reportedDropped;
+
+	public LoggerAspect(@Value("${logger-aspect.buffer-size:4096}") int bufferSize,
+			@Value("${logger-aspect.sample-rate:1.0}") double sampleRate,
+			@Value("${logger-aspect.drain-interval:100}") long drainIntervalMillis) {
+		this.buffer = new InvocationRingBuffer(bufferSize);
+		this.sampleRate = sampleRate;
+		this.drainIntervalMillis = drainIntervalMillis;
+	}
+
+	@Around("execution(* com.stackroute.userprofile.controller..*(..)))")
+	public Object aroundAllMethods(ProceedingJoinPoint joinPoint) throws Throwable {
+		boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+		long start = System.nanoTime();
+		try {
+			Object result = joinPoint.proceed();
+			if (sampled) {
+				buffer.offer(joinPoint.getStaticPart(), statusOf(result), System.nanoTime() - start);
+			}
+			return result;
+		} catch (Throwable ex) {
+			buffer.offer(joinPoint.getStaticPart(), FAILED, System.nanoTime() - start);
+			throw ex;
+		}
+	}
+
+	private static int statusOf(Object result) {
+		return result instanceof ResponseEntity ? ((ResponseEntity<?>) result).getStatusCodeValue() : 0;
+	}
+
+	@PostConstruct
+	public void start() {
+		running = true;
+		drainThread = new Thread(this::drainLoop, "logger-aspect-drain");
+		drainThread.setDaemon(true);
+		drainThread.start();
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		drainThread.interrupt();
+		drainThread.join(drainIntervalMillis * 10);
+	}
+
+	private void drainLoop() {
+		while (running) {
+			if (buffer.drain(this::log) == 0) {
+				try {
+					Thread.sleep(drainIntervalMillis);
+				} catch (InterruptedException ex) {
+					break;
+				}
+			}
+		}
+		buffer.drain(this::log);
+	}
 
+	private void log(Object source, int status, long latencyNanos) {
+		String method = ((JoinPoint.StaticPart) source).getSignature().toShortString();
+		if (status == FAILED) {
+			logger.warn("{} threw an exception after {} us", method, latencyNanos / 1000);
+		} else {
+			logger.info("{} returned {} in {} us", method, status, latencyNanos / 1000);
+		}
+		long dropped = buffer.getDropped();
+		if (dropped != reportedDropped) {
+			logger.warn("{} invocations were not logged, the logger aspect buffer was full", dropped - reportedDropped);
+			reportedDropped = dropped;
+		}
+	}
 }
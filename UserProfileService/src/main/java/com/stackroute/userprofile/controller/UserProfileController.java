@@ -1,5 +1,8 @@
 package com.stackroute.userprofile.controller;
 
+import java.util.List;
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,13 +67,13 @@ public class UserProfileController {
 //			userProfileById = userProfileService.getUserById(userProfile.getUserId());
 			UserProfile userProfileRegistered = userProfileService.registerUser(userProfile);
 			if(userProfileRegistered != null) {
-				logger.info("In controller - {}", "User Profile created: " +userProfile);
+				logger.info("In controller - User Profile created for user ID: {}", userProfile.getUserId());
 				return new ResponseEntity<UserProfile>(userProfile, HttpStatus.CREATED);
 			}
 		} catch(UserProfileAlreadyExistsException e) {
 			return new ResponseEntity<UserProfile>(HttpStatus.CONFLICT);
 		}
-		logger.info("In controller - {}", "User ID "+ userProfile.getUserId() + " already exists.");
+		logger.info("In controller - User ID {} already exists.", userProfile.getUserId());
 		return new ResponseEntity<UserProfile>(HttpStatus.CONFLICT);
 	}
 
@@ -92,13 +95,13 @@ public class UserProfileController {
 //			userProfileById = userProfileService.getUserById(userId);
 			UserProfile updatedProfile = userProfileService.updateUser(userId, userProfile);
 			if(updatedProfile != null) {
-				logger.info("In controller - {}", "User Profile updated: " +updatedProfile);
+				logger.info("In controller - User Profile updated for user ID: {}", userId);
 				return new ResponseEntity<UserProfile>(userProfile, HttpStatus.OK);
 			}
 		} catch (UserProfileNotFoundException e) {
 			return new ResponseEntity<UserProfile>(HttpStatus.NOT_FOUND);
 		}
-		logger.info("In controller - {}", "User ID "+ userId + " not found in database.");
+		logger.info("In controller - User ID {} not found in database.", userId);
 		return new ResponseEntity<UserProfile>(HttpStatus.NOT_FOUND);
 	}
 
@@ -122,13 +125,13 @@ public class UserProfileController {
 			
 			boolean isUserProfileDeleted = userProfileService.deleteUser(userId);
 			if(isUserProfileDeleted == true) {
-				logger.info("In controller - {}", "User Profile deleted for user ID: "+userId);
+				logger.info("In controller - User Profile deleted for user ID: {}", userId);
 				return new ResponseEntity<UserProfile>(HttpStatus.OK);
 			}
 		} catch (UserProfileNotFoundException e) {
 			return new ResponseEntity<UserProfile>(HttpStatus.NOT_FOUND);
 		}
-		logger.info("In controller - {}", "User ID "+ userId + " not found in database.");
+		logger.info("In controller - User ID {} not found in database.", userId);
 		return new ResponseEntity<UserProfile>(HttpStatus.NOT_FOUND);
 	}
 
@@ -149,13 +152,34 @@ public class UserProfileController {
 //			userProfileById = userProfileService.getUserById(userId);
 			UserProfile userProfileById = userProfileService.getUserById(userId);
 			if(userProfileById != null) {
-				logger.info("In controller - {}", "User Profile retrieved for user ID: "+userId+ "is: "+userProfileById);
+				logger.info("In controller - User Profile retrieved for user ID: {}", userId);
 				return new ResponseEntity<UserProfile>(userProfileById, HttpStatus.OK);
 			}
 		} catch (UserProfileNotFoundException e) {
 			return new ResponseEntity<UserProfile>(HttpStatus.NOT_FOUND);
 		}
-		logger.info("In controller - {}", "User ID "+ userId + " not found in database.");
+		logger.info("In controller - User ID {} not found in database.", userId);
 		return new ResponseEntity<UserProfile>(HttpStatus.NOT_FOUND);
 	}
+
+	/*
+	 * Define a handler method which will show details of many users at once, so that a
+	 * feed with many authors needs a single request. The user IDs are read from the
+	 * request body. This handler method should return any one of the status messages
+	 * basis on different situations:
+	 * 1. 200(OK) - With the map of userId to userprofile of the users which are found.
+	 * 2. 400(BAD REQUEST) - If more than UserProfileServiceImpl.MAX_BATCH_SIZE user IDs are given.
+	 * This handler method should map to the URL "/api/v1/user/batch" using HTTP POST method.
+	 */
+	@PostMapping("/user/batch")
+	public ResponseEntity<Map<String, UserProfile>> getUserProfiles(@RequestBody List<String> userIds){
+		try {
+			Map<String, UserProfile> userProfiles = userProfileService.getUsersByIds(userIds);
+			logger.info("In controller - {} of {} User Profiles retrieved.", userProfiles.size(), userIds.size());
+			return new ResponseEntity<Map<String, UserProfile>>(userProfiles, HttpStatus.OK);
+		} catch (IllegalArgumentException e) {
+			logger.info("In controller - {}", e.getMessage());
+			return new ResponseEntity<Map<String, UserProfile>>(HttpStatus.BAD_REQUEST);
+		}
+	}
 }
@@ -11,6 +11,6 @@ import com.stackroute.userprofile.model.UserProfile;
 * Annotate this class with @Repository annotation
 * */
 @Repository
-public interface UserProfileRepository extends MongoRepository<UserProfile, String> {
+public interface UserProfileRepository extends MongoRepository<UserProfile, String>, UserProfileRepositoryCustom {
 }
 
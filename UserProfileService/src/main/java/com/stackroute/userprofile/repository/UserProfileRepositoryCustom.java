@@ -0,0 +1,14 @@
+package com.stackroute.userprofile.repository;
+
+import com.stackroute.userprofile.model.UserProfile;
+
+/*
+ * Custom operations of UserProfileRepository. They are implemented in
+ * UserProfileRepositoryImpl with MongoTemplate, so each of them is one atomic
+ * round-trip instead of a read-modify-write of the profile.
+ */
+public interface UserProfileRepositoryCustom {
+
+	UserProfile updateUserProfile(String userId, UserProfile userProfile);
+
+}
@@ -0,0 +1,49 @@
+package com.stackroute.userprofile.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.stackroute.userprofile.model.UserProfile;
+
+/*
+ * MongoTemplate based implementation of UserProfileRepositoryCustom. Spring Data picks
+ * this class up as the fragment of UserProfileRepository because of its "Impl" suffix.
+ */
+public class UserProfileRepositoryImpl implements UserProfileRepositoryCustom {
+
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	public UserProfileRepositoryImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/*
+	 * Sets the non-null editable fields of the given profile with a single findAndModify
+	 * and returns the updated profile, or null when there is no profile for the userId.
+	 */
+	@Override
+	public UserProfile updateUserProfile(String userId, UserProfile userProfile) {
+		Query query = new Query(Criteria.where("userId").is(userId));
+		Update update = new Update();
+		setIfNotNull(update, "firstName", userProfile.getFirstName());
+		setIfNotNull(update, "lastName", userProfile.getLastName());
+		setIfNotNull(update, "contact", userProfile.getContact());
+		setIfNotNull(update, "email", userProfile.getEmail());
+		if (update.getUpdateObject().isEmpty()) {
+			return mongoTemplate.findOne(query, UserProfile.class);
+		}
+		return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+				UserProfile.class);
+	}
+
+	private static void setIfNotNull(Update update, String field, Object value) {
+		if (value != null) {
+			update.set(field, value);
+		}
+	}
+}
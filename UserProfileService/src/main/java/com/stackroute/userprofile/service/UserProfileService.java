@@ -1,5 +1,8 @@
 package com.stackroute.userprofile.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 import com.stackroute.userprofile.model.UserProfile;
 import com.stackroute.userprofile.util.exception.UserProfileAlreadyExistsException;
 import com.stackroute.userprofile.util.exception.UserProfileNotFoundException;
@@ -19,6 +22,8 @@ public interface UserProfileService {
 
   UserProfile getUserById(String userId) throws UserProfileNotFoundException;
 
+  Map<String, UserProfile> getUsersByIds(Collection<String> userIds);
+
 
 	
 	
@@ -1,8 +1,20 @@
 package com.stackroute.userprofile.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.stackroute.userprofile.model.UserProfile;
 import com.stackroute.userprofile.repository.UserProfileRepository;
 import com.stackroute.userprofile.util.exception.UserProfileAlreadyExistsException;
@@ -20,16 +32,28 @@ import com.stackroute.userprofile.util.exception.UserProfileNotFoundException;
 @Service
 public class UserProfileServiceImpl implements UserProfileService {
 
+	public static final int MAX_BATCH_SIZE = 500;
+
 	/*
 	 * Autowiring should be implemented for the UserProfileRepository. (Use
 	 * Constructor-based autowiring) Please note that we should not create any
 	 * object using the new keyword.
 	 */
 	private UserProfileRepository userProfileRepo;
+	private Cache<String, UserProfile> userProfileCache = Caffeine.newBuilder().maximumSize(10000).build();
 	@Autowired
 	public UserProfileServiceImpl(UserProfileRepository userProfileRepository) {
 		this.userProfileRepo = userProfileRepository;
 	}
+
+	/*
+	 * The profiles read by getUserById are kept in this cache, updateUser and deleteUser
+	 * invalidate the profile they change. The application cache is bounded in size and age.
+	 */
+	@Autowired
+	public void setUserProfileCache(Cache<String, UserProfile> userProfileCache) {
+		this.userProfileCache = userProfileCache;
+	}
 	
 	/*
 	 * This method should be used to save a new userprofile. Call the corresponding method
@@ -48,19 +72,15 @@ public class UserProfileServiceImpl implements UserProfileService {
 
 	/*
 	 * This method should be used to update a existing userprofile.Call the corresponding
-	 * method of Respository interface.
+	 * method of Respository interface. Only the non-null fields of the given profile are
+	 * updated, in one findAndModify returning the updated profile.
 	 */
 
     @Override
     public UserProfile updateUser(String userId, UserProfile user) throws UserProfileNotFoundException {
-    	UserProfile userProfileById = userProfileRepo.findById(userId).get();
-    	if(userProfileById != null) {
-    		userProfileById.setFirstName(user.getFirstName());
-    		userProfileById.setLastName(user.getLastName());
-    		userProfileById.setContact(user.getContact());
-    		userProfileById.setEmail(user.getEmail());
-    		userProfileRepo.save(userProfileById);
-    		UserProfile userProfile = userProfileRepo.findById(userId).get();
+    	UserProfile userProfile = userProfileRepo.updateUserProfile(userId, user);
+    	if(userProfile != null) {
+    		userProfileCache.invalidate(userId);
     		return userProfile;
     	}
         throw new UserProfileNotFoundException("User Profile with user ID: "+userId+ " does not found in DB.");
@@ -76,6 +96,7 @@ public class UserProfileServiceImpl implements UserProfileService {
     	UserProfile userProfileById = userProfileRepo.findById(userId).get();
     	if(userProfileById != null) {
     		userProfileRepo.deleteById(userId);
+    		userProfileCache.invalidate(userId);
     		return true;
     	}
         throw new UserProfileNotFoundException("User Profile with user ID: "+userId+ " does not found in DB.");
@@ -83,15 +104,40 @@ public class UserProfileServiceImpl implements UserProfileService {
     
 	/*
 	 * This method should be used to get userprofile by userId.Call the corresponding
-	 * method of Respository interface.
+	 * method of Respository interface, unless the profile is already in the cache.
+	 * Profiles which are not found are not cached.
 	 */
 
     @Override
     public UserProfile getUserById(String userId) throws UserProfileNotFoundException {
-    	UserProfile userProfileById = userProfileRepo.findById(userId).get();
+    	UserProfile userProfileById = userProfileCache.get(userId, id -> userProfileRepo.findById(id).orElse(null));
     	if(userProfileById != null) {
     		return userProfileById;
     	}
         throw new UserProfileNotFoundException("User Profile with user ID: "+userId+ " does not found in DB.");
     }
+
+	/*
+	 * This method should be used to get the userprofiles of many users at once. The
+	 * profiles which are not in the cache are read with a single findAllById and cached.
+	 * The returned map only holds the users which were found.
+	 */
+
+    @Override
+    public Map<String, UserProfile> getUsersByIds(Collection<String> userIds) {
+    	Set<String> distinctUserIds = userIds.stream().filter(Objects::nonNull)
+    			.collect(Collectors.toCollection(LinkedHashSet::new));
+    	if(distinctUserIds.size() > MAX_BATCH_SIZE) {
+    		throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " user IDs can be looked up at once.");
+    	}
+    	return userProfileCache.getAll(distinctUserIds, missingUserIds -> {
+    		List<String> userIdsToFind = new ArrayList<>();
+    		missingUserIds.forEach(userIdsToFind::add);
+    		Map<String, UserProfile> userProfiles = new HashMap<>();
+    		for(UserProfile userProfile : userProfileRepo.findAllById(userIdsToFind)) {
+    			userProfiles.put(userProfile.getUserId(), userProfile);
+    		}
+    		return userProfiles;
+    	});
+    }
 }
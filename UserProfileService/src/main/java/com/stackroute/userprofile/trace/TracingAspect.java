@@ -0,0 +1,56 @@
+package com.stackroute.userprofile.trace;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/*
+ * Opens a span around every service call, and a child span around every repository call
+ * made while it is open. The finished trace is handed to the SpanExporter. The aspect is
+ * only registered when tracing.enabled is true, otherwise the calls are not advised.
+ */
+@Aspect
+public class TracingAspect {
+
+	private static final ThreadLocal<Span> CURRENT_SPAN = new ThreadLocal<>();
+
+	private final SpanExporter spanExporter;
+
+	public TracingAspect(SpanExporter spanExporter) {
+		this.spanExporter = spanExporter;
+	}
+
+	@Around("execution(* com.stackroute.userprofile.service..*(..)) "
+			+ "|| execution(* org.springframework.data.repository.Repository+.*(..))")
+	public Object aroundTracedMethods(ProceedingJoinPoint joinPoint) throws Throwable {
+		Span parent = CURRENT_SPAN.get();
+		Span span = new Span(parent,
+				typeOf(joinPoint.getTarget().getClass()) + "." + joinPoint.getSignature().getName());
+		CURRENT_SPAN.set(span);
+		Throwable error = null;
+		try {
+			return joinPoint.proceed();
+		} catch (Throwable ex) {
+			error = ex;
+			throw ex;
+		} finally {
+			span.finish(error);
+			if (parent == null) {
+				CURRENT_SPAN.remove();
+				spanExporter.export(span);
+			} else {
+				CURRENT_SPAN.set(parent);
+			}
+		}
+	}
+
+	/* Services and repositories are named by their interface, repository beans are proxies. */
+	private static String typeOf(Class<?> type) {
+		for (Class<?> typeInterface : type.getInterfaces()) {
+			if (typeInterface.getName().startsWith("com.stackroute.")) {
+				return typeInterface.getSimpleName();
+			}
+		}
+		return type.getSimpleName();
+	}
+}
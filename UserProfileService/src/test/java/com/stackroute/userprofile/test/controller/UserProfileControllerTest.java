@@ -24,6 +24,9 @@ import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -141,6 +144,26 @@ public class UserProfileControllerTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    public void getUserProfilesSuccess() throws Exception {
+
+        when(userProfileService.getUsersByIds(any())).thenReturn(Collections.singletonMap("Jhon123", userProfile));
+        mockMvc.perform(post("/api/v1/user/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(asJsonString(Arrays.asList("Jhon123", "Jane123"))))
+                .andExpect(status().isOk())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    public void getUserProfilesFailure() throws Exception {
+
+        when(userProfileService.getUsersByIds(any())).thenThrow(IllegalArgumentException.class);
+        mockMvc.perform(post("/api/v1/user/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(asJsonString(Arrays.asList("Jhon123", "Jane123"))))
+                .andExpect(status().isBadRequest())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
     public static String asJsonString(final Object obj) {
         try {
             return new ObjectMapper().writeValueAsString(obj);
@@ -76,6 +76,17 @@ public class UserProfileRepositoryTest {
         assertEquals("987654321", fetcheduser.getContact());
     }
 
+    @Test
+    public void updateUserProfileTest() {
+    	userProfileRepository.insert(userProfile);
+    	UserProfile changes = new UserProfile();
+    	changes.setContact("987654321");
+    	UserProfile updateduser = userProfileRepository.updateUserProfile("Jhon123", changes);
+        assertEquals("987654321", updateduser.getContact());
+        assertEquals("Jhon", updateduser.getFirstName());
+        assertEquals("Jhon@gmail.com", userProfileRepository.findById("Jhon123").get().getEmail());
+    }
+
     @Test
     public void getUserByIdTest() {
     	userProfileRepository.insert(userProfile);
@@ -13,10 +13,14 @@ import com.stackroute.userprofile.util.exception.UserProfileAlreadyExistsExcepti
 import com.stackroute.userprofile.util.exception.UserProfileNotFoundException;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class UserProfileServiceImplTest {
@@ -71,13 +75,23 @@ public class UserProfileServiceImplTest {
 
     @Test
     public void updateUser() throws UserProfileNotFoundException {
-        when(userProfileRepository.findById(userProfile.getUserId())).thenReturn(options);
         userProfile.setContact("1234567789");
+        when(userProfileRepository.updateUserProfile(userProfile.getUserId(), userProfile)).thenReturn(userProfile);
         UserProfile fetchuser = userProfileService.updateUser(userProfile.getUserId(), userProfile);
         assertEquals(userProfile, fetchuser);
 
     }
 
+    @Test
+    public void updateUserFailure() {
+        when(userProfileRepository.updateUserProfile(userProfile.getUserId(), userProfile)).thenReturn(null);
+
+        assertThrows(
+                UserProfileNotFoundException.class,
+                () -> { userProfileService.updateUser(userProfile.getUserId(), userProfile); });
+
+    }
+
     @Test
     public void deleteUserSuccess() throws UserProfileNotFoundException {
         when(userProfileRepository.findById(userProfile.getUserId())).thenReturn(options);
@@ -97,4 +111,88 @@ public class UserProfileServiceImplTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getUserByIdFromCache() throws UserProfileNotFoundException {
+
+        when(userProfileRepository.findById(userProfile.getUserId())).thenReturn(options);
+
+        userProfileService.getUserById(userProfile.getUserId());
+        UserProfile fetchedUser = userProfileService.getUserById(userProfile.getUserId());
+
+        assertEquals(userProfile, fetchedUser);
+        verify(userProfileRepository, times(1)).findById(userProfile.getUserId());
+
+    }
+
+    @Test
+    public void getUserByIdFailure() {
+
+        when(userProfileRepository.findById(userProfile.getUserId())).thenReturn(Optional.empty());
+
+        assertThrows(
+                UserProfileNotFoundException.class,
+                () -> { userProfileService.getUserById(userProfile.getUserId()); });
+
+    }
+
+    @Test
+    public void updateUserInvalidatesCache() throws UserProfileNotFoundException {
+
+        when(userProfileRepository.findById(userProfile.getUserId())).thenReturn(options);
+        when(userProfileRepository.updateUserProfile(userProfile.getUserId(), userProfile)).thenReturn(userProfile);
+
+        userProfileService.getUserById(userProfile.getUserId());
+        userProfileService.updateUser(userProfile.getUserId(), userProfile);
+        userProfileService.getUserById(userProfile.getUserId());
+
+        verify(userProfileRepository, times(2)).findById(userProfile.getUserId());
+
+    }
+
+    @Test
+    public void deleteUserInvalidatesCache() throws UserProfileNotFoundException {
+
+        when(userProfileRepository.findById(userProfile.getUserId())).thenReturn(options);
+
+        userProfileService.getUserById(userProfile.getUserId());
+        userProfileService.deleteUser(userProfile.getUserId());
+        when(userProfileRepository.findById(userProfile.getUserId())).thenReturn(Optional.empty());
+
+        assertThrows(
+                UserProfileNotFoundException.class,
+                () -> { userProfileService.getUserById(userProfile.getUserId()); });
+
+    }
+
+    @Test
+    public void getUsersByIds() throws UserProfileNotFoundException {
+
+        UserProfile otherProfile = new UserProfile("Jane123", "Jane", "Simon", "9797979797", "Jane@gmail.com", null);
+        when(userProfileRepository.findById(userProfile.getUserId())).thenReturn(options);
+        when(userProfileRepository.findAllById(Arrays.asList("Jane123", "Unknown"))).thenReturn(Arrays.asList(otherProfile));
+
+        userProfileService.getUserById("Jhon123");
+        Map<String, UserProfile> fetchedUsers = userProfileService.getUsersByIds(Arrays.asList("Jhon123", "Jane123", "Unknown", "Jane123"));
+
+        assertEquals(2, fetchedUsers.size());
+        assertEquals(userProfile, fetchedUsers.get("Jhon123"));
+        assertEquals(otherProfile, fetchedUsers.get("Jane123"));
+        verify(userProfileRepository, times(1)).findAllById(Arrays.asList("Jane123", "Unknown"));
+
+    }
+
+    @Test
+    public void getUsersByIdsFailure() {
+
+        List<String> userIds = new ArrayList<>();
+        for (int i = 0; i <= UserProfileServiceImpl.MAX_BATCH_SIZE; i++) {
+            userIds.add("user" + i);
+        }
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> { userProfileService.getUsersByIds(userIds); });
+
+    }
+
+}